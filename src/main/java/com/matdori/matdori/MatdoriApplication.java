@@ -5,6 +5,7 @@ import io.swagger.v3.oas.annotations.servers.Server;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 import javax.annotation.PostConstruct;
 import java.util.TimeZone;
@@ -12,6 +13,7 @@ import java.util.TimeZone;
 @OpenAPIDefinition(servers = {@Server(url = "https://api.matdori.app", description = "서버 URL")})
 @SpringBootApplication
 @EnableCaching
+@EnableScheduling
 public class MatdoriApplication {
 
 	@PostConstruct
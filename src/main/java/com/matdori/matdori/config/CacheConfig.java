@@ -0,0 +1,83 @@
+package com.matdori.matdori.config;
+
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * 홈 화면 위젯과 가게 메뉴를 위한 2단계 캐시 설정.
+ * 캐시가 지워지면 Redis 채널로 캐시 이름을 알려서 다른 서버의 L1도 같이 비운다.
+ */
+@Configuration
+public class CacheConfig {
+
+    public static final String MATDORI_TOP3 = "matdoriTop3";
+    public static final String JOKBO_RICH_STORES = "jokboRichStores";
+    public static final String DEPARTMENT_STORES = "departmentStores";
+    public static final String STORE_COUNT = "storeCount";
+    public static final String STORE_MENU = "storeMenu";
+
+    private static final String EVICTION_CHANNEL = "cache:evict";
+    private static final double TTL_JITTER_RATIO = 0.1;
+    private static final long LOCAL_MAXIMUM_SIZE = 1000;
+
+    // 캐시 이름별 만료 시간
+    private static final Map<String, Duration> TTLS = new LinkedHashMap<>();
+    static {
+        TTLS.put(MATDORI_TOP3, Duration.ofMinutes(10));
+        TTLS.put(JOKBO_RICH_STORES, Duration.ofMinutes(10));
+        TTLS.put(DEPARTMENT_STORES, Duration.ofMinutes(10));
+        TTLS.put(STORE_COUNT, Duration.ofHours(1));
+        TTLS.put(STORE_MENU, Duration.ofHours(1));
+    }
+
+    @Bean
+    public CacheManager cacheManager(RedisConnectionFactory redisConnectionFactory) {
+        RedisTemplate<String, Object> cacheRedisTemplate = new RedisTemplate<>();
+        cacheRedisTemplate.setConnectionFactory(redisConnectionFactory);
+        cacheRedisTemplate.setKeySerializer(new StringRedisSerializer());
+        cacheRedisTemplate.setValueSerializer(new JdkSerializationRedisSerializer());
+        cacheRedisTemplate.afterPropertiesSet();
+
+        List<TwoLevelCache> caches = TTLS.entrySet().stream()
+                .map(e -> new TwoLevelCache(e.getKey(), e.getValue(), TTL_JITTER_RATIO, LOCAL_MAXIMUM_SIZE,
+                        cacheRedisTemplate,
+                        () -> cacheRedisTemplate.convertAndSend(EVICTION_CHANNEL, e.getKey())))
+                .collect(Collectors.toList());
+
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+        cacheManager.setCaches(caches);
+        return cacheManager;
+    }
+
+    /**
+     * Redis 채널 구독. 로그인 세션 무효화(SessionUtil)도 같은 컨테이너에 리스너를 등록한다.
+     */
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory redisConnectionFactory,
+                                                                       CacheManager cacheManager) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redisConnectionFactory);
+        container.addMessageListener((message, pattern) -> {
+            // 메시지 본문은 JDK 직렬화된 캐시 이름
+            Object cacheName = new JdkSerializationRedisSerializer().deserialize(message.getBody());
+            org.springframework.cache.Cache cache = cacheName == null ? null : cacheManager.getCache(cacheName.toString());
+            if(cache instanceof TwoLevelCache)
+                ((TwoLevelCache) cache).clearLocal();
+        }, new ChannelTopic(EVICTION_CHANNEL));
+        return container;
+    }
+}
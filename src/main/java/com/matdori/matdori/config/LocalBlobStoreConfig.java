@@ -0,0 +1,29 @@
+package com.matdori.matdori.config;
+
+import com.matdori.matdori.storage.LocalBlobStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * 로컬 BlobStore에 저장한 파일을 정적 리소스로 내려주는 설정.
+ * 파일 이름이 UUID라 내용이 바뀌지 않으므로 오래 캐시해도 된다.
+ */
+@Configuration
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "blob-store.type", havingValue = "local")
+public class LocalBlobStoreConfig implements WebMvcConfigurer {
+
+    private static final int CACHE_PERIOD_SECONDS = 60 * 60 * 24 * 365;
+
+    private final LocalBlobStore localBlobStore;
+
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        registry.addResourceHandler(localBlobStore.getBaseUrl() + "/**")
+                .addResourceLocations(localBlobStore.getRoot().toUri().toString())
+                .setCachePeriod(CACHE_PERIOD_SECONDS);
+    }
+}
@@ -1,34 +1,105 @@
 package com.matdori.matdori.config;
 
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.SocketOptions;
+import io.lettuce.core.TimeoutOptions;
+import io.lettuce.core.metrics.MicrometerCommandLatencyRecorder;
+import io.lettuce.core.metrics.MicrometerOptions;
+import io.lettuce.core.resource.ClientResources;
+import io.lettuce.core.resource.DefaultClientResources;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
 import org.springframework.boot.autoconfigure.data.redis.RedisProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisPassword;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
-import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.connection.lettuce.LettucePoolingClientConfiguration;
 import org.springframework.data.redis.repository.configuration.EnableRedisRepositories;
-import org.springframework.data.redis.serializer.StringRedisSerializer;
 
+import java.time.Duration;
+
+/**
+ * Redis 클라이언트(Lettuce) 설정.
+ * spring.redis.timeout / connect-timeout으로 명령, 연결 타임아웃을 정하고,
+ * spring.redis.lettuce.pool.enabled=true이면 블로킹 명령과 트랜잭션에 쓸 커넥션 풀을 둔다.
+ * 명령마다 걸린 시간을 lettuce.command.completion 지표(p50, p95, p99)로 남긴다.
+ */
 @RequiredArgsConstructor
 @Configuration
 @EnableRedisRepositories
 public class RedisRepositoryConfig {
 
+    private static final Duration DEFAULT_COMMAND_TIMEOUT = Duration.ofSeconds(2);
+    private static final Duration DEFAULT_CONNECT_TIMEOUT = Duration.ofSeconds(1);
+    private static final double[] LATENCY_PERCENTILES = {0.5, 0.95, 0.99};
+
     private final RedisProperties redisProperties;
 
+    @Bean(destroyMethod = "shutdown")
+    public ClientResources lettuceClientResources(MeterRegistry meterRegistry) {
+        MicrometerOptions options = MicrometerOptions.builder()
+                .histogram(true)
+                .targetPercentiles(LATENCY_PERCENTILES)
+                .build();
+        return DefaultClientResources.builder()
+                .commandLatencyRecorder(new MicrometerCommandLatencyRecorder(meterRegistry, options))
+                .build();
+    }
+
     // lettuce
     @Bean
-    public RedisConnectionFactory redisConnectionFactory() {
-        return new LettuceConnectionFactory(redisProperties.getHost(), redisProperties.getPort());
+    public RedisConnectionFactory redisConnectionFactory(ClientResources lettuceClientResources) {
+        RedisStandaloneConfiguration standalone = new RedisStandaloneConfiguration(redisProperties.getHost(), redisProperties.getPort());
+        standalone.setDatabase(redisProperties.getDatabase());
+        standalone.setUsername(redisProperties.getUsername());
+        standalone.setPassword(RedisPassword.of(redisProperties.getPassword()));
+
+        return new LettuceConnectionFactory(standalone, clientConfiguration(lettuceClientResources));
     }
 
-    @Bean
-    public RedisTemplate<String, Object> redisTemplate() {
-        RedisTemplate<String, Object> redisTemplate = new RedisTemplate<>();
-        redisTemplate.setConnectionFactory(redisConnectionFactory());
-        redisTemplate.setKeySerializer(new StringRedisSerializer());
-        redisTemplate.setValueSerializer(new StringRedisSerializer());
-        return redisTemplate;
+    private LettuceClientConfiguration clientConfiguration(ClientResources clientResources) {
+        Duration commandTimeout = redisProperties.getTimeout() != null ? redisProperties.getTimeout() : DEFAULT_COMMAND_TIMEOUT;
+        Duration connectTimeout = redisProperties.getConnectTimeout() != null ? redisProperties.getConnectTimeout() : DEFAULT_CONNECT_TIMEOUT;
+
+        // 연결이 끊긴 동안 명령을 쌓아두지 않고 바로 실패시켜서, 요청 스레드가 타임아웃까지 기다리지 않게 한다.
+        ClientOptions clientOptions = ClientOptions.builder()
+                .socketOptions(SocketOptions.builder().connectTimeout(connectTimeout).keepAlive(true).build())
+                .timeoutOptions(TimeoutOptions.enabled(commandTimeout))
+                .disconnectedBehavior(ClientOptions.DisconnectedBehavior.REJECT_COMMANDS)
+                .autoReconnect(true)
+                .build();
+
+        RedisProperties.Pool pool = redisProperties.getLettuce().getPool();
+        LettuceClientConfiguration.LettuceClientConfigurationBuilder builder;
+        if(pool != null && Boolean.TRUE.equals(pool.getEnabled()))
+            builder = LettucePoolingClientConfiguration.builder().poolConfig(poolConfig(pool));
+        else
+            builder = LettuceClientConfiguration.builder();
+
+        if(redisProperties.isSsl())
+            builder.useSsl();
+
+        return builder
+                .clientResources(clientResources)
+                .clientOptions(clientOptions)
+                .commandTimeout(commandTimeout)
+                .build();
+    }
+
+    private GenericObjectPoolConfig<?> poolConfig(RedisProperties.Pool pool) {
+        GenericObjectPoolConfig<?> config = new GenericObjectPoolConfig<>();
+        config.setMaxTotal(pool.getMaxActive());
+        config.setMaxIdle(pool.getMaxIdle());
+        config.setMinIdle(pool.getMinIdle());
+        if(pool.getMaxWait() != null)
+            config.setMaxWait(pool.getMaxWait());
+        if(pool.getTimeBetweenEvictionRuns() != null)
+            config.setTimeBetweenEvictionRuns(pool.getTimeBetweenEvictionRuns());
+        return config;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,34 @@
+package com.matdori.matdori.config;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.transfer.TransferManager;
+import com.amazonaws.services.s3.transfer.TransferManagerBuilder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.Executors;
+
+/**
+ * S3 업로드 설정.
+ * 이미지 여러 장을 스레드 수가 정해진 풀에서 동시에 올리고, 큰 파일은 멀티파트로 나눠서 올린다.
+ */
+@Configuration
+@ConditionalOnProperty(name = "blob-store.type", havingValue = "s3", matchIfMissing = true)
+public class S3Config {
+
+    private static final int UPLOAD_THREADS = 8;
+    private static final long MULTIPART_UPLOAD_THRESHOLD = 8L * 1024 * 1024;
+    private static final long MINIMUM_UPLOAD_PART_SIZE = 5L * 1024 * 1024;
+
+    @Bean(destroyMethod = "shutdownNow")
+    public TransferManager transferManager(AmazonS3 amazonS3) {
+        return TransferManagerBuilder.standard()
+                .withS3Client(amazonS3)
+                .withExecutorFactory(() -> Executors.newFixedThreadPool(UPLOAD_THREADS))
+                .withMultipartUploadThreshold(MULTIPART_UPLOAD_THRESHOLD)
+                .withMinimumUploadPartSize(MINIMUM_UPLOAD_PART_SIZE)
+                .withShutDownThreadPools(true)
+                .build();
+    }
+}
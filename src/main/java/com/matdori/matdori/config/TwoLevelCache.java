@@ -0,0 +1,195 @@
+package com.matdori.matdori.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 서버마다 가지는 Caffeine 캐시(L1) 뒤에 Redis 캐시(L2)를 두는 2단계 캐시.
+ * L1에 없으면 Redis를 보고, Redis에도 없을 때만 DB를 조회한다.
+ * 같은 키를 동시에 조회하면 서버마다 한 번만 DB를 조회하고 나머지는 그 결과를 기다린다.
+ * 만료 시간에 지터를 더해서 같은 시각에 만들어진 캐시가 한꺼번에 만료되지 않게 한다.
+ * Redis가 응답하지 않으면 L2를 건너뛰고 L1과 DB만으로 동작한다.
+ */
+@Slf4j
+public class TwoLevelCache extends AbstractValueAdaptingCache {
+
+    private final String name;
+    private final Cache<Object, Object> localCache;
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final Duration ttl;
+    private final double jitterRatio;
+    private final Runnable evictionPublisher;
+
+    public TwoLevelCache(String name, Duration ttl, double jitterRatio, long maximumSize,
+                         RedisTemplate<String, Object> redisTemplate, Runnable evictionPublisher) {
+        super(true);
+        this.name = name;
+        this.ttl = ttl;
+        this.jitterRatio = jitterRatio;
+        this.redisTemplate = redisTemplate;
+        this.evictionPublisher = evictionPublisher;
+        this.localCache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<Object, Object>() {
+                    @Override
+                    public long expireAfterCreate(Object key, Object value, long currentTime) {
+                        return jitteredTtl().toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Object key, Object value, long currentTime, long currentDuration) {
+                        return jitteredTtl().toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterRead(Object key, Object value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return localCache;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        Object value = localCache.getIfPresent(key);
+        if(value != null)
+            return value;
+
+        value = redisGet(key);
+        if(value != null)
+            localCache.put(key, value);
+        return value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Object value = localCache.get(key, k -> {
+            Object stored = redisGet(k);
+            if(stored != null)
+                return stored;
+
+            Object loaded;
+            try {
+                loaded = toStoreValue(valueLoader.call());
+            } catch (Exception e) {
+                throw new ValueRetrievalException(k, valueLoader, e);
+            }
+            redisSet(k, loaded);
+            return loaded;
+        });
+        return (T) fromStoreValue(value);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        Object storeValue = toStoreValue(value);
+        redisSet(key, storeValue);
+        localCache.put(key, storeValue);
+    }
+
+    @Override
+    public void evict(Object key) {
+        localCache.invalidate(key);
+        try {
+            redisTemplate.delete(redisKey(key));
+            evictionPublisher.run();
+        } catch (DataAccessException e) {
+            log.warn("Redis 캐시 삭제 실패 cache={} key={}", name, key, e);
+        }
+    }
+
+    @Override
+    public void clear() {
+        localCache.invalidateAll();
+        try {
+            // KEYS 대신 SCAN으로 이 캐시의 키만 찾아서 지운다.
+            List<String> keys = redisTemplate.execute((RedisCallback<List<String>>) connection -> {
+                List<String> found = new ArrayList<>();
+                ScanOptions options = ScanOptions.scanOptions().match(redisKeyPrefix() + "*").count(100).build();
+                try (Cursor<byte[]> cursor = connection.scan(options)) {
+                    cursor.forEachRemaining(k -> found.add(new String(k, StandardCharsets.UTF_8)));
+                }
+                return found;
+            });
+            if(keys != null && !keys.isEmpty())
+                redisTemplate.delete(keys);
+            evictionPublisher.run();
+        } catch (DataAccessException e) {
+            // 다른 서버의 L1은 만료 시간이 지나면 비워진다.
+            log.warn("Redis 캐시 비우기 실패 cache={}", name, e);
+        }
+    }
+
+    /**
+     * 다른 서버에서 캐시가 지워졌을 때 이 서버의 L1만 비우기.
+     */
+    public void clearLocal() {
+        localCache.invalidateAll();
+    }
+
+    /**
+     * L2 조회하기. Redis가 응답하지 않으면 없는 것으로 보고 DB를 조회하게 한다.
+     */
+    private Object redisGet(Object key) {
+        try {
+            return redisTemplate.opsForValue().get(redisKey(key));
+        } catch (DataAccessException | SerializationException e) {
+            log.warn("Redis 캐시 조회 실패 cache={} key={}", name, key, e);
+            return null;
+        }
+    }
+
+    /**
+     * L2 저장하기. 실패해도 조회한 값은 L1에 남아서 그대로 응답한다.
+     */
+    private void redisSet(Object key, Object value) {
+        try {
+            redisTemplate.opsForValue().set(redisKey(key), value, jitteredTtl());
+        } catch (DataAccessException | SerializationException e) {
+            log.warn("Redis 캐시 저장 실패 cache={} key={}", name, key, e);
+        }
+    }
+
+    private String redisKeyPrefix() {
+        return "cache:" + name + ":";
+    }
+
+    private String redisKey(Object key) {
+        return redisKeyPrefix() + key;
+    }
+
+    private Duration jitteredTtl() {
+        long ttlMillis = ttl.toMillis();
+        long jitterMillis = (long) (ttlMillis * jitterRatio);
+        if(jitterMillis <= 0)
+            return ttl;
+        return Duration.ofMillis(ttlMillis + ThreadLocalRandom.current().nextLong(jitterMillis + 1));
+    }
+}
@@ -2,8 +2,9 @@ package com.matdori.matdori.controller;
 
 import com.matdori.matdori.domain.Notice;
 import com.matdori.matdori.domain.Response;
-import com.matdori.matdori.domain.TermsOfService;
 import com.matdori.matdori.service.EtcService;
+import com.matdori.matdori.service.ReferenceDataCache;
+import com.matdori.matdori.service.ResourceVersionService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -14,13 +15,14 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import java.time.LocalDateTime;
-import java.util.List;
 import java.util.stream.Collectors;
 
 @Tag(name = "기타 API", description = "공지사항, 이용약관 등에 사용할 API")
@@ -29,32 +31,31 @@ import java.util.stream.Collectors;
 public class EtcApiController {
 
     private final EtcService etcService;
+    private final ResourceVersionService resourceVersionService;
+    private final ReferenceDataCache referenceDataCache;
 
     /**
      * 공지사항 리스트 조회하기
+     * 직렬화해 둔 응답을 그대로 내려준다.
      */
     @Operation(summary = "공지사항 리스트 조회 API", description = "등록된 모든 공지사항의 리스트를 조회합니다.")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "성공"),
+            @ApiResponse(responseCode = "304", description = "변경 없음(If-None-Match의 ETag와 같은 경우)"),
             @ApiResponse(responseCode = "500", description = "서버 에러", content = @Content(schema = @Schema(implementation = Error.class)))
     })
     @GetMapping("/notice")
-    public ResponseEntity<Response<List<findAllNoticeResponse>>> readAllNotice() {
+    public ResponseEntity<byte[]> readAllNotice(WebRequest webRequest) {
 
-        List<Notice> allNotice = etcService.findAllNotice();
-        List<findAllNoticeResponse> responseList = allNotice.stream()
-                .map(n -> new findAllNoticeResponse(
-                        n.getId(),
-                        n.getTitle(),
-                        n.getContents(),
-                        n.getCreatedAt()
-                )).collect(Collectors.toList());
-
-        return ResponseEntity.ok().body(
-                Response.success(
-                        responseList
-                )
-        );
+        // 공지사항 버전이 같으면 DB 조회 없이 304로 응답
+        return referenceDataCache.respond(ReferenceDataCache.NOTICE, resourceVersionService.getNoticeETag(), webRequest,
+                () -> etcService.findAllNotice().stream()
+                        .map(n -> new findAllNoticeResponse(
+                                n.getId(),
+                                n.getTitle(),
+                                n.getContents(),
+                                n.getCreatedAt()
+                        )).collect(Collectors.toList()));
     }
 
     /**
@@ -65,14 +66,18 @@ public class EtcApiController {
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "성공"),
             @ApiResponse(responseCode = "400", description = "존재하지 않는 공지사항(NOT_EXISTED_NOTICE)"),
+            @ApiResponse(responseCode = "304", description = "변경 없음(If-None-Match의 ETag와 같은 경우)"),
             @ApiResponse(responseCode = "500", description = "서버 에러", content = @Content(schema = @Schema(implementation = Error.class)))
     })
     @GetMapping("/notice/{noticeIndex}")
     public ResponseEntity<Response<Notice>> readANotice(
-            @PathVariable("noticeIndex") Long noticeIndex) {
+            @PathVariable("noticeIndex") Long noticeIndex, WebRequest webRequest) {
+
+        if(webRequest.checkNotModified(resourceVersionService.getNoticeETag()))
+            return null;
 
         Notice notice = etcService.findANotice(noticeIndex);
-        return ResponseEntity.ok().body(
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(
                 Response.success(
                         notice
                 )
@@ -81,21 +86,19 @@ public class EtcApiController {
 
     /**
      * 이용약관 리스트 받기
+     * 직렬화해 둔 응답을 그대로 내려준다.
      */
     @Operation(summary = "이용약관 리스트 조회 API", description = "회원가입을 할 때, 이용약관 리스트를 보여주기 위해 사용합니다.")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "성공"),
+            @ApiResponse(responseCode = "304", description = "변경 없음(If-None-Match의 ETag와 같은 경우)"),
             @ApiResponse(responseCode = "500", description = "서버 에러", content = @Content(schema = @Schema(implementation = Error.class)))
     })
     @GetMapping("/terms-of-service")
-    public ResponseEntity<Response<List<TermsOfService>>> readAllTerms() {
+    public ResponseEntity<byte[]> readAllTerms(WebRequest webRequest) {
 
-        List<TermsOfService> terms = etcService.findAllTerms();
-        return ResponseEntity.ok().body(
-                Response.success(
-                        terms
-                )
-        );
+        return referenceDataCache.respond(ReferenceDataCache.TERMS, resourceVersionService.getTermsETag(), webRequest,
+                etcService::findAllTerms);
     }
 
     /**
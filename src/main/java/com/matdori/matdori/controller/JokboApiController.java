@@ -1,8 +1,10 @@
 package com.matdori.matdori.controller;
 
 import com.matdori.matdori.domain.*;
+import com.matdori.matdori.repositoy.Dto.JokboCommentItem;
 import com.matdori.matdori.repositoy.Dto.JokboRichStore;
 import com.matdori.matdori.repositoy.Dto.MatdoriPick;
+import com.matdori.matdori.repositoy.Dto.StoreListByDepartment;
 import com.matdori.matdori.service.*;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -43,6 +45,7 @@ public class JokboApiController {
     private final JokboService jokboService;
     private final StoreService storeService;
     private final UserService userService;
+    private final ImageUploadService imageUploadService;
 
     /**
      * 족보 작성하기.
@@ -91,10 +94,16 @@ public class JokboApiController {
         jokbo.setTitle(request.getTitle());
         jokbo.setContents(request.getContents());
 
-        System.out.println("여기야");
-        System.out.println(images);
-
-        jokboService.createJokbo(jokbo, images);
+        // 이미지는 트랜잭션 밖에서 먼저 업로드하고, 족보 저장에 실패하면 업로드한 이미지를 지운다.
+        List<ImageUploadService.UploadedImage> uploadedImages = imageUploadService.uploadFiles(images);
+        try {
+            jokboService.createJokbo(jokbo, uploadedImages);
+        } catch (RuntimeException e) {
+            imageUploadService.deleteFile(uploadedImages.stream()
+                    .flatMap(image -> image.getUrls().values().stream())
+                    .collect(Collectors.toList()));
+            throw e;
+        }
 
         return ResponseEntity.ok()
                 .body(Response.success(null));
@@ -128,7 +137,7 @@ public class JokboApiController {
         Long jokboFavoriteId = userService.getFavoriteJokboId(userId, jokboId);
         com.matdori.matdori.repositoy.Dto.StoreRatings ratings = storeService.getAllRatings(jokbo.getStore());
         List<String> jokboImgUrls = jokboService.getImageUrls(jokbo.getJokboImgs());
-        int jokboCommentCnt = jokbo.getJokboComments().size();
+        int jokboCommentCnt = jokbo.getCommentCount();
         boolean isWrittenBy = userService.checkIsWritten(jokbo.getUser().getId(), userId);
 
 
@@ -180,11 +189,9 @@ public class JokboApiController {
         // 세션 체크하기
         AuthorizationService.checkSession(userId);
 
-        List<Jokbo> selectedJokboList = jokboService.findAllById(request.getJokboIdList());
-        List<JokboImg> jokboImgs = jokboService.findAllImgById(selectedJokboList);
-        List<String> imgUrls = jokboService.getImageUrls(jokboImgs);
-
-        jokboService.deleteJokbo(userId, selectedJokboList, imgUrls);
+        // 족보 삭제가 커밋된 뒤에 저장소의 이미지를 한 번에 삭제한다. 삭제가 끝나기를 기다리지 않는다.
+        List<String> imgUrls = jokboService.deleteJokbos(userId, request.getJokboIdList());
+        imageUploadService.deleteFileAsync(imgUrls);
 
         return ResponseEntity.ok().body(
                 Response.success(null)
@@ -265,18 +272,18 @@ public class JokboApiController {
         AuthorizationService.checkSession(userId);
 
         Boolean hasNext = true;
-        List<JokboComment> jokboComments = jokboService.getAllJokboComments(jokboId, cursor);
+        List<JokboCommentItem> jokboComments = jokboService.getAllJokboComments(jokboId, cursor, userId);
         List<JokboCommentResponse> comment_list = jokboComments.stream()
                 .map(c -> new JokboCommentResponse(
-                        c.getId(),
+                        c.getCommentIndex(),
                         c.getCreatedAt(),
                         c.getContents(),
                         c.getIsDeleted(),
-                        c.getUser().getId(),
-                        c.getUser().getNickname(),
-                        userService.getFavoriteCommentId(userId, c.getId()),
-                        c.getJokboCommentFavorites().size(),
-                        userService.checkIsWritten(c.getUser().getId(), userId)
+                        c.getUserIndex(),
+                        c.getNickname(),
+                        c.getCommentFavoriteId(),
+                        c.getFavoriteCnt(),
+                        userService.checkIsWritten(c.getUserIndex(), userId)
                 ))
                 .collect(Collectors.toList());
 
@@ -317,9 +324,7 @@ public class JokboApiController {
         // 세션 체크하기.
         AuthorizationService.checkSession(userId);
 
-        List<JokboComment> selectedJokboCommentList = jokboService.getSelectedJokboComments(userId, request.getJokboCommentIdList());
-
-        jokboService.deleteJokboComment(userId, selectedJokboCommentList);
+        jokboService.deleteJokboComments(userId, request.getJokboCommentIdList());
 
         return ResponseEntity.ok().body(
                 Response.success(null)
@@ -336,7 +341,7 @@ public class JokboApiController {
     })
     @GetMapping("/jokbo-count")
     public ResponseEntity<Response<CountAllJokboResponse>> countAllJokbos() {
-        int count = jokboService.countAll();
+        long count = jokboService.countAll();
 
         return ResponseEntity.ok()
                 .body(Response.success(
@@ -358,13 +363,13 @@ public class JokboApiController {
     public ResponseEntity<Response<List<DepartmentRecommendationResponse>>> readDepartmentRecommendation(
             @RequestParam(value = "department") String department) {
 
-        List<Store> storeList = jokboService.getStoreListByDepartment(department);
+        List<StoreListByDepartment> storeList = jokboService.getStoreListByDepartment(department);
         List<DepartmentRecommendationResponse> responseList = storeList.stream()
                 .map(s -> new DepartmentRecommendationResponse(
-                        s.getId(),
+                        s.getStoreIndex(),
                         s.getName(),
                         s.getImgUrl(),
-                        storeService.getTotalRating(s.getId())
+                        s.getTotalRating()
                 )).collect(Collectors.toList());
 
         return ResponseEntity.ok().body(
@@ -515,7 +520,7 @@ public class JokboApiController {
     @Data
     @AllArgsConstructor
     static class CountAllJokboResponse {
-        private int count;
+        private long count;
     }
 
     /**
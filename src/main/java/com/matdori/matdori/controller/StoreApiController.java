@@ -3,6 +3,8 @@ package com.matdori.matdori.controller;
 import com.matdori.matdori.domain.*;
 import com.matdori.matdori.repositoy.Dto.*;
 import com.matdori.matdori.service.AuthorizationService;
+import com.matdori.matdori.service.ResourceVersionService;
+import com.matdori.matdori.service.StorePageService;
 import com.matdori.matdori.service.StoreService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -16,14 +18,17 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 @Tag(name = "가게 API", description = "가게와 관련된 API들")
@@ -32,6 +37,8 @@ import java.util.stream.Collectors;
 public class StoreApiController {
 
     private final StoreService storeService;
+    private final StorePageService storePageService;
+    private final ResourceVersionService resourceVersionService;
 
     /**
      * 가게 정보 탭 조회하기.
@@ -41,15 +48,20 @@ public class StoreApiController {
     @Parameter(name = "storeIndex", description = "가게 id", required = true)
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "성공"),
+            @ApiResponse(responseCode = "304", description = "변경 없음(If-None-Match의 ETag와 같은 경우)"),
             @ApiResponse(responseCode = "400", description = "필수 파라미터 누락(INVALID_REQUIRED_PARAM)"),
             @ApiResponse(responseCode = "404", description = "존재하지 않는 가게(NOT_EXISTED_STORE)"),
             @ApiResponse(responseCode = "500", description = "서버 에러", content = @Content(schema = @Schema(implementation = Error.class)))
     })
     @GetMapping("/stores/{storeIndex}/information")
-    public ResponseEntity<Response<StoreInformationResponse>> readStoreInformation(@PathVariable("storeIndex") Long id){
+    public ResponseEntity<Response<StoreInformationResponse>> readStoreInformation(@PathVariable("storeIndex") Long id, WebRequest webRequest){
+        // 가게 정보 버전이 같으면 DB 조회 없이 304로 응답
+        if(webRequest.checkNotModified(resourceVersionService.getStoreETag("information", id)))
+            return null;
+
         Store store = storeService.findOne(id);
 
-        return ResponseEntity.ok().body(
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(
                 Response.success(
                         new StoreInformationResponse(
                                 store.getOpenHours(),
@@ -66,15 +78,19 @@ public class StoreApiController {
     @Parameter(name = "storeIndex", description = "가게 id", required = true)
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "성공"),
+            @ApiResponse(responseCode = "304", description = "변경 없음(If-None-Match의 ETag와 같은 경우)"),
             @ApiResponse(responseCode = "400", description = "필수 파라미터 누락(INVALID_REQUIRED_PARAM)"),
             @ApiResponse(responseCode = "404", description = "존재하지 않는 가게(NOT_EXISTED_STORE)"),
             @ApiResponse(responseCode = "500", description = "서버 에러", content = @Content(schema = @Schema(implementation = Error.class)))
     })
     @GetMapping("/stores/{storeIndex}/menu")
-    public ResponseEntity<Response<List<StoreMenuResponse>>> readStoreJokboCnt(@PathVariable("storeIndex") Long id){
-        List<Category> categories = storeService.findAllCategoryWithMenu(id);
+    public ResponseEntity<Response<List<StoreMenuResponse>>> readStoreJokboCnt(@PathVariable("storeIndex") Long id, WebRequest webRequest){
+        if(webRequest.checkNotModified(resourceVersionService.getStoreETag("menu", id)))
+            return null;
+
+        StoreMenu storeMenu = storeService.getStoreMenu(id);
 
-        return ResponseEntity.ok().body(Response.success(categories.stream().map(c -> new StoreMenuResponse(c))
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(Response.success(storeMenu.getCategories().stream().map(c -> new StoreMenuResponse(c))
                 .collect(Collectors.toList())));
     }
 
@@ -118,8 +134,15 @@ public class StoreApiController {
                                                                       @RequestParam(value = "cursor", required = false) Double cursor,
                                                                        @RequestParam ("sortingType") String sortingType,
                                                                        @RequestParam (value = "jokboIndex", required = false) Long jokboIndex){
-        Boolean hasNext = false;
         List<Jokbo> jokbos = storeService.findAllJokbo(storeIndex, cursor, sortingType, jokboIndex);
+        return ResponseEntity.ok()
+                .body(
+                        Response.success(
+                                toReadAllJokboResponse(jokbos)));
+    }
+
+    private ReadAllJokboResponse toReadAllJokboResponse(List<Jokbo> jokbos) {
+        Boolean hasNext = false;
         List<JokboResponse> jokboList = jokbos.stream()
                 .map(j -> {
                     Double totalSum = (double)j.getCleanRating() + (double)j.getFlavorRating() + (double)j.getUnderPricedRating();
@@ -133,8 +156,8 @@ public class StoreApiController {
                             j.getTitle(),
                             j.getContents(),
                             j.getJokboImgs(),
-                            j.getJokboFavorites().size(),
-                            j.getJokboComments().size(),
+                            j.getFavoriteCount(),
+                            j.getCommentCount(),
                             totalRating);
                 })
                 .collect(Collectors.toList());
@@ -142,13 +165,7 @@ public class StoreApiController {
             hasNext = true;
             jokboList.remove(jokboList.size() -1);
         }
-        return ResponseEntity.ok()
-                .body(
-                        Response.success(
-                                new ReadAllJokboResponse(
-                                        hasNext,
-                                        jokboList
-                                )));
+        return new ReadAllJokboResponse(hasNext, jokboList);
     }
 
     /**
@@ -182,6 +199,63 @@ public class StoreApiController {
         ));
     }
 
+    /**
+     * 가게 화면 한 번에 조회하기.
+     * 가게 정보, 메뉴, 족보 개수, 상단 정보, 족보 첫 페이지를 동시에 조회해서 한 응답으로 돌려준다.
+     */
+    @Operation(summary = "가게 화면 조회 API", description = "가게 화면에 필요한 정보, 메뉴, 족보 개수, 상단 정보, 족보 첫 페이지를 한 번에 조회합니다.")
+    @Parameters({
+            @Parameter(name = "storeIndex", description = "가게 id", required = true),
+            @Parameter(name = "userIndex", description = "유저 id", required = true),
+            @Parameter(name = "sortingType", description = "족보 정렬값 (최신순, 별점 높은 순, 좋아요 많은 순)", required = true),
+            @Parameter(name = "sessionId", description = "세션 id", in = ParameterIn.COOKIE, required = false)
+    })
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "성공"),
+            @ApiResponse(responseCode = "400", description = "필수 파라미터 누락(INVALID_REQUIRED_PARAM)", content = @Content(schema = @Schema(implementation = Error.class))),
+            @ApiResponse(responseCode = "404", description = "존재하지 않는 가게(NOT_EXISTED_STORE)", content = @Content(schema = @Schema(implementation = Error.class))),
+            @ApiResponse(responseCode = "500", description = "서버 에러", content = @Content(schema = @Schema(implementation = Error.class))),
+            @ApiResponse(responseCode = "503", description = "조회 시간 초과(STORE_PAGE_TIMEOUT)", content = @Content(schema = @Schema(implementation = Error.class)))
+    })
+    @GetMapping("/stores/{storeIndex}/page")
+    public ResponseEntity<Response<StorePageResponse>> readStorePage(@PathVariable("storeIndex") Long storeIndex,
+                                                                     @RequestParam("userIndex") Long userId,
+                                                                     @RequestParam("sortingType") String sortingType) {
+        // 세션 확인은 요청 스레드에서만 쿠키를 읽을 수 있으므로 먼저 한다.
+        AuthorizationService.checkSession(userId);
+
+        // 조회마다 트랜잭션이 따로 열리므로, 지연 로딩이 필요한 응답 객체는 조회 안에서 만든다.
+        // 상단 별점, 족보 개수, 족보 목록은 서로 맞아야 하므로 한 스냅숏에서 읽고, 개수도 Redis 카운터 대신 테이블에서 센다.
+        CompletableFuture<StoreJokboSnapshot> snapshot = storePageService.readSnapshot(() ->
+                new StoreJokboSnapshot(
+                        new StoreInformationHeaderResponse(
+                                storeService.readStoreInformationHeader(storeIndex),
+                                storeService.readPopularJokboAtStore(storeIndex),
+                                storeService.readFavoriteStoreIndex(userId, storeIndex)),
+                        storeService.countStoreJokboFromTable(storeIndex),
+                        toReadAllJokboResponse(storeService.findAllJokbo(storeIndex, null, sortingType, null))));
+        CompletableFuture<StoreInformationResponse> information = storePageService.read(() -> {
+            Store store = storeService.findOne(storeIndex);
+            return new StoreInformationResponse(store.getOpenHours(), store.getPhoneNumber(), store.getAddress());
+        });
+        // 메뉴는 대부분 캐시에서 바로 나오므로 요청 스레드에서 조회한다.
+        List<StoreMenuResponse> menus = storeService.getStoreMenu(storeIndex).getCategories().stream()
+                .map(c -> new StoreMenuResponse(c))
+                .collect(Collectors.toList());
+
+        storePageService.awaitAll(snapshot, information);
+        StoreJokboSnapshot jokboSnapshot = storePageService.join(snapshot);
+        return ResponseEntity.ok().body(Response.success(
+                new StorePageResponse(
+                        jokboSnapshot.getHeader(),
+                        storePageService.join(information),
+                        menus,
+                        jokboSnapshot.getJokboCount(),
+                        jokboSnapshot.getJokbos()
+                )
+        ));
+    }
+
     /**
      * 카테고리별 가게 리스트 조회하기
      */
@@ -272,12 +346,13 @@ public class StoreApiController {
     @Operation(summary = "맛도리 top 3", description = "맛도리 top 3 리스트를 받습니다.")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "성공"),
+            @ApiResponse(responseCode = "400", description = "잘못된 정렬값(INVALID_STORE_LISTING_ORDER)"),
             @ApiResponse(responseCode = "500", description = "서버 에러", content = @Content(schema = @Schema(implementation = Error.class)))
     })
     @Parameter(name = "order", description = "정렬값 (별점, 음식 맛, 가성비, 청결)", required = true)
     @GetMapping("/matdori-top3")
     public ResponseEntity<Response<List<MatdoriTop3>>> getMatdoriTop3(@RequestParam("order")String order){
-        List<MatdoriTop3> matdoriTop3 = storeService.getMatdoriTop3(order);
+        List<MatdoriTop3> matdoriTop3 = storeService.getMatdoriTop3(RatingAxis.nameOf(order));
         return ResponseEntity.ok().body(Response.success(
                 matdoriTop3
         ));
@@ -288,7 +363,7 @@ public class StoreApiController {
     static class StoreMenuResponse{
         String name;
         List<MenuDto> menus = new ArrayList<>();
-        public StoreMenuResponse(Category category) {
+        public StoreMenuResponse(StoreMenu.MenuCategory category) {
             this.name = category.getName();
             this.menus = category.getMenus().stream()
                     .map(c -> new MenuDto(c))
@@ -303,7 +378,7 @@ public class StoreApiController {
         private String price;
         private String imgUrl;
 
-        public MenuDto(Menu menu) {
+        public MenuDto(StoreMenu.MenuItem menu) {
             this.name = menu.getName();
             this.price = menu.getPrice();
             this.imgUrl = menu.getImgUrl();
@@ -334,7 +409,7 @@ public class StoreApiController {
             this.title = title;
             this.contents = contents;
             if(imgUrl.size() != 0)
-                this.imgUrl = imgUrl.get(0).getImgUrl();
+                this.imgUrl = imgUrl.get(0).getListImgUrl();
             this.favoriteCnt = favoriteCnt;
             this.commentCnt = commentCnt;
             this.totalRating = totalRating;
@@ -372,6 +447,25 @@ public class StoreApiController {
         }
     }
 
+    // 한 스냅숏에서 읽은 가게 화면의 족보 관련 부분
+    @Data
+    @AllArgsConstructor
+    static class StoreJokboSnapshot{
+        private StoreInformationHeaderResponse header;
+        private Long jokboCount;
+        private ReadAllJokboResponse jokbos;
+    }
+
+    @Data
+    @AllArgsConstructor
+    static class StorePageResponse{
+        private StoreInformationHeaderResponse header;
+        private StoreInformationResponse information;
+        private List<StoreMenuResponse> menus;
+        private Long jokboCount;
+        private ReadAllJokboResponse jokbos;
+    }
+
     @Data
     static class StoreInformationHeaderRequest{
         private Long userIndex;
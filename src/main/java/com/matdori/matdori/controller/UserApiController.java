@@ -6,6 +6,8 @@ import com.matdori.matdori.exception.ErrorCode;
 import com.matdori.matdori.repositoy.Dto.FavoriteStore;
 import com.matdori.matdori.service.AuthorizationService;
 import com.matdori.matdori.service.MailService;
+import com.matdori.matdori.service.ReferenceDataCache;
+import com.matdori.matdori.service.ResourceVersionService;
 import com.matdori.matdori.service.UserService;
 import com.matdori.matdori.service.UserSha256;
 import com.matdori.matdori.util.SessionUtil;
@@ -22,6 +24,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.*;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import javax.validation.Valid;
 import javax.validation.constraints.NotBlank;
@@ -40,6 +43,8 @@ public class UserApiController {
     private final UserService userService;
     private final AuthorizationService authorizationService;
     private final MailService mailService;
+    private final ResourceVersionService resourceVersionService;
+    private final ReferenceDataCache referenceDataCache;
 
     /**
      * 회원 가입
@@ -60,7 +65,7 @@ public class UserApiController {
     @PostMapping("/sign-up")
     public ResponseEntity<Response<Void>> createUser(@RequestBody @Valid CreateUserRequest request) throws NoSuchAlgorithmException {
         // 이메일 인증여부 확인
-        AuthorizationService.checkEmailVerificationCompletion(request.email, EmailAuthorizationType.SIGNUP);
+        authorizationService.checkEmailVerificationCompletion(request.email, EmailAuthorizationType.SIGNUP);
         User user = new User();
         user.setEmail(request.email);
         user.setDepartment(Department.nameOf(request.department));
@@ -262,6 +267,7 @@ public class UserApiController {
             @ApiResponse(responseCode = "400", description = "필수 파라미터 누락(INVALID_EMAIL_FORMAT)"),
             @ApiResponse(responseCode = "404", description = "존재하지 않는 회원(NOT_EXISTED_USER) <type=UPDATEPASSWORD 일 경우"),
             @ApiResponse(responseCode = "409", description = "이미 존재하는 회원(DUPLICATED_USER) <type=SIGNUP 일 경우>"),
+            @ApiResponse(responseCode = "429", description = "인증 메일 요청 횟수 초과(TOO_MANY_VERIFICATION_REQUESTS) <10분에 5번>"),
             @ApiResponse(responseCode = "500", description = "서버 에러", content = @Content(schema = @Schema(implementation = Error.class))),
     })
     @Parameters({
@@ -283,15 +289,17 @@ public class UserApiController {
             @ApiResponse(responseCode = "200", description = "성공"),
             @ApiResponse(responseCode = "400", description = "필수 파라미터 누락(INVALID_REQUIRED_PARAM)"),
             @ApiResponse(responseCode = "401", description = "인증 가능 시간 만료(EXPIRED_SESSION) <br> 잘못된 인증번호(WRONG_AUTHENTICATION_NUMBER) : 추가예정 "),
+            @ApiResponse(responseCode = "429", description = "인증번호 입력 횟수 초과(TOO_MANY_VERIFICATION_ATTEMPTS)"),
             @ApiResponse(responseCode = "500", description = "서버 에러", content = @Content(schema = @Schema(implementation = Error.class)))
     })
     @Parameters({
+            @Parameter(name = "email", description = "인증번호를 받은 이메일 (선택)", required = false),
             @Parameter(name = "number", description = "인증번호", required = false),
             @Parameter(name = "type", description = "인증타입 (SIGNUP/UPDATEPASSWORD)", required = false)
     })
     @PostMapping("/authentication-number")
     public ResponseEntity<Response<Void>> authenticateNumber(@RequestBody @Valid AuthenticateNumberRequest request){
-        AuthorizationService.checkAuthorizationNumber(request.number, request.type);
+        authorizationService.checkAuthorizationNumber(request.email, request.number, request.type);
         return ResponseEntity.ok()
                 .body(Response.success(null));
     }
@@ -363,8 +371,8 @@ public class UserApiController {
                             totalRating,
                             jokbo.getJokboImgs(),
                             jokbo.getContents(),
-                            jokbo.getJokboComments().size(),
-                            jokbo.getJokboFavorites().size());
+                            jokbo.getCommentCount(),
+                            jokbo.getFavoriteCount());
                 })
                 .collect(Collectors.toList());
 
@@ -460,8 +468,8 @@ public class UserApiController {
                             j.getContents(),
                             totalRating,
                             j.getJokboImgs(),
-                            j.getJokboComments().size(),
-                            j.getJokboFavorites().size());
+                            j.getCommentCount(),
+                            j.getFavoriteCount());
                 })
                 .collect(Collectors.toList());
         if(jokbos.size() != 14)
@@ -563,11 +571,13 @@ public class UserApiController {
     @Operation(summary = "학과 리스트 불러오기", description = "학과 리스트를 불러옵니다.")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "성공"),
+            @ApiResponse(responseCode = "304", description = "변경 없음(If-None-Match의 ETag와 같은 경우)"),
             @ApiResponse(responseCode = "500", description = "서버 에러", content = @Content(schema = @Schema(implementation = Error.class))),
     })
     @GetMapping("/departments")
-    public ResponseEntity<Response<List<String>>> readDepartments(){
-        return ResponseEntity.ok().body(Response.success(Department.getDepartmentList()));
+    public ResponseEntity<byte[]> readDepartments(WebRequest webRequest){
+        return referenceDataCache.respond(ReferenceDataCache.DEPARTMENTS, resourceVersionService.getDepartmentsETag(), webRequest,
+                Department::getDepartmentList);
     }
 
     /**
@@ -718,7 +728,7 @@ public class UserApiController {
             this.title = title;
             this.totalRating = totalRating;
             if(imgUrl.size() != 0)
-                this.imgUrl = imgUrl.get(0).getImgUrl();
+                this.imgUrl = imgUrl.get(0).getThumbnailImgUrl();
             this.contents = contents;
             this.commentCnt = commentCnt;
             this.favoriteCnt = favoriteCnt;
@@ -748,6 +758,9 @@ public class UserApiController {
 
     @Data
     static class AuthenticateNumberRequest{
+        // 이전 클라이언트는 보내지 않는다. 보내면 틀린 인증번호도 이메일의 틀린 횟수로 센다.
+        private String email;
+
         @NotBlank
         private String number;
 
@@ -802,7 +815,7 @@ public class UserApiController {
             this.contents = contents;
             this.totalRating = totalRating;
             if(imgUrl.size() != 0)
-                this.imgUrl = imgUrl.get(0).getImgUrl();
+                this.imgUrl = imgUrl.get(0).getThumbnailImgUrl();
             this.commentCnt = commentCnt;
             this.favoriteCnt = favoriteCnt;
         }
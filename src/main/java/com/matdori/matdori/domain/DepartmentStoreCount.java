@@ -0,0 +1,44 @@
+package com.matdori.matdori.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.io.Serializable;
+
+/**
+ * 학과별로 각 가게에 작성된 족보 개수.
+ * 족보가 작성/삭제될 때 같은 트랜잭션 안에서 갱신해서, 학과별 인기 가게를 족보 테이블 GROUP BY 없이
+ * (학과, 족보 개수, 가게 id) 인덱스 범위 탐색 한 번으로 조회한다.
+ */
+@Entity
+@Getter
+@NoArgsConstructor
+@IdClass(DepartmentStoreCount.Key.class)
+@Table(name = "department_store_count", indexes = {
+        @Index(name = "idx_department_store_count_ranking", columnList = "department, jokbo_count, store_index")
+})
+public class DepartmentStoreCount {
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 100)
+    private Department department;
+
+    @Id
+    @Column(name = "store_index")
+    private Long storeId;
+
+    @Column(name = "jokbo_count", nullable = false)
+    private long jokboCount;
+
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private Department department;
+        private Long storeId;
+    }
+}
@@ -0,0 +1,22 @@
+package com.matdori.matdori.domain;
+
+/**
+ * 업로드한 이미지를 줄여서 저장하는 크기.
+ * 원본이 더 작으면 늘리지 않고 원본 크기로 저장한다.
+ */
+public enum ImageVariant {
+    THUMBNAIL("thumbnail", 320),
+    LIST("list", 720),
+    DETAIL("detail", 1280);
+
+    private final String name;
+    private final int maxWidth;
+
+    ImageVariant(String name, int maxWidth) {
+        this.name = name;
+        this.maxWidth = maxWidth;
+    }
+
+    public String getName() { return this.name; }
+    public int getMaxWidth() { return this.maxWidth; }
+}
@@ -18,6 +18,10 @@ import static javax.persistence.FetchType.*;
 
 @Entity
 @Getter @Setter
+@Table(indexes = {
+        // 가게 족보 탭의 좋아요 많은 순 정렬
+        @Index(name = "idx_jokbo_store_favorite_count", columnList = "store_index, favorite_count, jokbo_index")
+})
 public class Jokbo {
     @Id @GeneratedValue
     @Column(name = "jokbo_index")
@@ -56,6 +60,13 @@ public class Jokbo {
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
+    // 좋아요/댓글 개수. 컬렉션을 불러오지 않고 정렬과 조회에 쓰기 위해 좋아요/댓글이 바뀔 때 UPDATE로 증감한다.
+    @Column(name = "favorite_count", columnDefinition = "integer default 0 not null")
+    private int favoriteCount;
+
+    @Column(name = "comment_count", columnDefinition = "integer default 0 not null")
+    private int commentCount;
+
     @OneToMany(mappedBy = "jokbo", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<JokboImg> jokboImgs = new ArrayList<>();
 
@@ -42,6 +42,10 @@ public class JokboComment {
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
+    // 댓글 좋아요 개수. 좋아요가 눌리거나 취소될 때 UPDATE로 증감한다.
+    @Column(name = "like_count", columnDefinition = "integer default 0 not null")
+    private int likeCount;
+
     @OneToMany(mappedBy = "jokboComment")
     private List<JokboCommentFavorite> jokboCommentFavorites = new ArrayList<>();
 }
@@ -11,6 +11,8 @@ import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 import static javax.persistence.FetchType.*;
 
@@ -26,10 +28,18 @@ public class JokboImg {
     @JoinColumn(name = "jokbo_index")
     private Jokbo jokbo;
 
+    // 상세 화면용 이미지
     @NotBlank
     @Column(name = "img_url")
     private String imgUrl;
 
+    // 목록 화면용으로 줄인 이미지. 크기별 이미지를 만들기 전에 올라간 이미지는 비어 있다.
+    @Column(name = "list_img_url")
+    private String listImgUrl;
+
+    @Column(name = "thumbnail_img_url")
+    private String thumbnailImgUrl;
+
     @CreationTimestamp
     @Column(name = "created_at")
     private LocalDateTime createdAt;
@@ -38,4 +48,30 @@ public class JokboImg {
         this.jokbo = jokbo;
         this.imgUrl = imgUrl;
     }
+
+    public JokboImg(Jokbo jokbo, String imgUrl, String listImgUrl, String thumbnailImgUrl) {
+        this.jokbo = jokbo;
+        this.imgUrl = imgUrl;
+        this.listImgUrl = listImgUrl;
+        this.thumbnailImgUrl = thumbnailImgUrl;
+    }
+
+    public String getListImgUrl() {
+        return listImgUrl != null ? listImgUrl : imgUrl;
+    }
+
+    public String getThumbnailImgUrl() {
+        return thumbnailImgUrl != null ? thumbnailImgUrl : getListImgUrl();
+    }
+
+    /**
+     * S3에서 지워야 하는 크기별 이미지 url 전부.
+     */
+    public List<String> getAllImgUrls() {
+        List<String> imgUrls = new ArrayList<>();
+        imgUrls.add(imgUrl);
+        if(listImgUrl != null) imgUrls.add(listImgUrl);
+        if(thumbnailImgUrl != null) imgUrls.add(thumbnailImgUrl);
+        return imgUrls;
+    }
 }
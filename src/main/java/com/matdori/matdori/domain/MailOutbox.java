@@ -0,0 +1,83 @@
+package com.matdori.matdori.domain;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * 보낼 메일 대기열.
+ * 요청 스레드는 메일을 여기에 저장만 하고 바로 반환하며, MailDispatcher가 모아서 보낸다.
+ * 보내지 못한 메일은 시도 횟수에 따라 간격을 늘려가며 다시 보낸다.
+ * 보낸 메일은 본문(인증번호 등)을 지우고, 보냈거나 실패한 메일은 보관 기간이 지나면 삭제한다.
+ */
+@Entity
+@Getter
+@NoArgsConstructor
+@Table(name = "mail_outbox", indexes = {
+        @Index(name = "idx_mail_outbox_status_next_attempt", columnList = "status, next_attempt_at")
+})
+public class MailOutbox {
+
+    @Id @GeneratedValue
+    @Column(name = "mail_outbox_index")
+    private Long id;
+
+    @Column(name = "to_address", nullable = false)
+    private String toAddress;
+
+    @Column(nullable = false)
+    private String subject;
+
+    @Column(columnDefinition = "TEXT")
+    private String text;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 10, nullable = false)
+    private Status status;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+
+    @CreationTimestamp
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    public MailOutbox(String toAddress, String subject, String text) {
+        this.toAddress = toAddress;
+        this.subject = subject;
+        this.text = text;
+        this.status = Status.PENDING;
+        this.nextAttemptAt = LocalDateTime.now();
+    }
+
+    public void sent() {
+        this.status = Status.SENT;
+        this.attempts++;
+        this.sentAt = LocalDateTime.now();
+        this.text = null;
+    }
+
+    /**
+     * 보내기 실패. 최대 시도 횟수를 넘으면 더 이상 보내지 않는다.
+     */
+    public void failed(int maxAttempts, LocalDateTime nextAttemptAt) {
+        this.attempts++;
+        if(attempts >= maxAttempts)
+            this.status = Status.FAILED;
+        else
+            this.nextAttemptAt = nextAttemptAt;
+    }
+
+    public enum Status {
+        PENDING, SENT, FAILED
+    }
+}
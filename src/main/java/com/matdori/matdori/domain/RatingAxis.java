@@ -0,0 +1,34 @@
+package com.matdori.matdori.domain;
+
+import com.matdori.matdori.exception.ErrorCode;
+import com.matdori.matdori.exception.InvalidStoreListingOrderException;
+
+/**
+ * 맛도리 top 3 정렬 기준이 되는 별점 항목.
+ */
+public enum RatingAxis {
+    TOTAL("별점", "totalScore"),
+    FLAVOR("음식 맛", "flavorScore"),
+    UNDER_PRICED("가성비", "underPricedScore"),
+    CLEAN("청결", "cleanScore");
+
+    private final String name;
+    // StoreRatingSummary에서 이 항목의 베이지안 점수 필드
+    private final String scoreField;
+
+    RatingAxis(String name, String scoreField) {
+        this.name = name;
+        this.scoreField = scoreField;
+    }
+
+    public String getName() { return this.name; }
+    public String getScoreField() { return this.scoreField; }
+
+    public static RatingAxis nameOf(String name) {
+        for(RatingAxis axis : RatingAxis.values()) {
+            if(axis.getName().equals(name))
+                return axis;
+        }
+        throw new InvalidStoreListingOrderException(ErrorCode.INVALID_STORE_LISTING_ORDER);
+    }
+}
@@ -0,0 +1,94 @@
+package com.matdori.matdori.domain;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.persistence.*;
+
+/**
+ * 가게별 족보 별점 집계.
+ * 족보가 작성/삭제될 때 같은 트랜잭션 안에서 합계와 개수를 갱신하기 때문에
+ * 가게 별점을 조회할 때 족보 테이블 전체를 GROUP BY 하지 않아도 된다.
+ * 카테고리별 가게 목록의 정렬 기준마다 (카테고리, 정렬 값, 가게 id) 인덱스를 두어 커서 페이징이 인덱스 범위 탐색으로 끝난다.
+ *
+ * 맛도리 top 3은 별점 항목마다 베이지안 평균 점수를 두고 (점수, 가게 id) 인덱스로 상위 가게를 가져온다.
+ * 점수 = (PRIOR_WEIGHT * PRIOR_MEAN + 별점 합) / (PRIOR_WEIGHT + 족보 개수)
+ * 족보가 적은 가게는 PRIOR_MEAN 쪽으로 당겨져서, 5점 족보 하나인 가게가 4.8점 족보 200개인 가게를 이기지 못한다.
+ */
+@Entity
+@Getter @Setter
+@NoArgsConstructor
+@Table(name = "store_rating_summary", indexes = {
+        @Index(name = "idx_store_rating_summary_category_rating", columnList = "category, rating_score, store_index"),
+        @Index(name = "idx_store_rating_summary_category_jokbo", columnList = "category, jokbo_count, store_index"),
+        @Index(name = "idx_store_rating_summary_category_store", columnList = "category, store_index"),
+        @Index(name = "idx_store_rating_summary_total_score", columnList = "total_score, store_index"),
+        @Index(name = "idx_store_rating_summary_flavor_score", columnList = "flavor_score, store_index"),
+        @Index(name = "idx_store_rating_summary_under_priced_score", columnList = "under_priced_score, store_index"),
+        @Index(name = "idx_store_rating_summary_clean_score", columnList = "clean_score, store_index")
+})
+public class StoreRatingSummary {
+
+    // 족보가 없을 때 가정하는 별점과, 그 가정을 족보 몇 개만큼 믿을지.
+    public static final double PRIOR_MEAN = 3.0;
+    public static final int PRIOR_WEIGHT = 5;
+
+    @Id
+    @Column(name = "store_index")
+    private Long storeId;
+
+    // 카테고리별 목록을 집계 테이블만으로 정렬하기 위해 가게의 카테고리를 같이 저장한다.
+    @Enumerated(EnumType.STRING)
+    private StoreCategory category;
+
+    @Column(name = "flavor_rating_sum", nullable = false)
+    private long flavorRatingSum;
+
+    @Column(name = "under_priced_rating_sum", nullable = false)
+    private long underPricedRatingSum;
+
+    @Column(name = "clean_rating_sum", nullable = false)
+    private long cleanRatingSum;
+
+    // 족보 하나가 세 가지 별점을 모두 가지고 있기 때문에 별점 항목별 개수는 족보 개수와 같다.
+    @Column(name = "jokbo_count", nullable = false)
+    private int jokboCount;
+
+    // 세 별점의 전체 평균. 족보가 없는 가게는 0.
+    @Column(name = "rating_score", columnDefinition = "double precision default 0 not null")
+    private double ratingScore;
+
+    // 별점 항목별 베이지안 평균 점수. 족보가 없는 가게는 PRIOR_MEAN.
+    @Column(name = "total_score", columnDefinition = "double precision default 0 not null")
+    private double totalScore;
+
+    @Column(name = "flavor_score", columnDefinition = "double precision default 0 not null")
+    private double flavorScore;
+
+    @Column(name = "under_priced_score", columnDefinition = "double precision default 0 not null")
+    private double underPricedScore;
+
+    @Column(name = "clean_score", columnDefinition = "double precision default 0 not null")
+    private double cleanScore;
+
+    public StoreRatingSummary(Store store) {
+        this.storeId = store.getId();
+        this.category = store.getCategory();
+        updateScores();
+    }
+
+    /**
+     * 합계와 개수로 베이지안 점수 다시 계산하기.
+     */
+    public void updateScores() {
+        this.flavorScore = bayesianScore(flavorRatingSum, jokboCount);
+        this.underPricedScore = bayesianScore(underPricedRatingSum, jokboCount);
+        this.cleanScore = bayesianScore(cleanRatingSum, jokboCount);
+        this.totalScore = bayesianScore((flavorRatingSum + underPricedRatingSum + cleanRatingSum) / 3.0, jokboCount);
+    }
+
+    public static double bayesianScore(double ratingSum, long count) {
+        return (PRIOR_WEIGHT * PRIOR_MEAN + ratingSum) / (PRIOR_WEIGHT + count);
+    }
+}
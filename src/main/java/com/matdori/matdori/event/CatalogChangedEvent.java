@@ -0,0 +1,7 @@
+package com.matdori.matdori.event;
+
+/**
+ * 가게나 메뉴 정보가 추가/삭제됐을 때 발행하는 이벤트.
+ */
+public class CatalogChangedEvent {
+}
@@ -0,0 +1,61 @@
+package com.matdori.matdori.event;
+
+import com.matdori.matdori.config.CacheConfig;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * 족보가 바뀌면 족보 집계로 만들어지는 홈 화면 캐시 비우기.
+ * 커밋 전에 비우면 다른 요청이 커밋 전 데이터로 캐시를 다시 채울 수 있어서 커밋 후에 비운다.
+ */
+@Component
+@RequiredArgsConstructor
+public class HomeCacheEvictionListener {
+
+    private final CacheManager cacheManager;
+
+    @TransactionalEventListener
+    public void onJokboCreated(JokboCreatedEvent event) {
+        clearHomeCaches();
+    }
+
+    /**
+     * 족보를 여러 개 삭제해도 캐시는 한 번만 비운다.
+     */
+    @TransactionalEventListener
+    public void onJokbosDeleted(JokbosDeletedEvent event) {
+        clearHomeCaches();
+    }
+
+    /**
+     * 가게 일괄 등록으로 가게 이름, 이미지, 집계가 바뀌면 홈 화면 캐시도 비운다.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        clearHomeCaches();
+    }
+
+    private void clearHomeCaches() {
+        clear(CacheConfig.MATDORI_TOP3);
+        clear(CacheConfig.JOKBO_RICH_STORES);
+        clear(CacheConfig.DEPARTMENT_STORES);
+    }
+
+    /**
+     * 순위를 다시 만든 뒤에 비워야, 만드는 중에 채워진 캐시가 남지 않는다.
+     */
+    @EventListener
+    public void onJokboRankingRebuilt(JokboRankingRebuiltEvent event) {
+        clear(CacheConfig.JOKBO_RICH_STORES);
+    }
+
+    private void clear(String cacheName) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if(cache != null)
+            cache.clear();
+    }
+}
@@ -0,0 +1,32 @@
+package com.matdori.matdori.event;
+
+import com.matdori.matdori.repositoy.JokboCountRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 족보 작성/삭제가 커밋된 뒤에 Redis 족보 개수 카운터 증감하기.
+ * 롤백된 작성/삭제는 카운터에 반영되지 않는다.
+ */
+@Component
+@RequiredArgsConstructor
+public class JokboCountListener {
+
+    private final JokboCountRepository jokboCountRepository;
+
+    @TransactionalEventListener
+    public void onJokboCreated(JokboCreatedEvent event) {
+        jokboCountRepository.increase(event.getStoreId(), 1);
+    }
+
+    @TransactionalEventListener
+    public void onJokbosDeleted(JokbosDeletedEvent event) {
+        Map<Long, Long> deltas = new HashMap<>();
+        event.getCountsByStore().forEach((storeId, count) -> deltas.put(storeId, -count));
+        jokboCountRepository.increaseAll(deltas);
+    }
+}
@@ -0,0 +1,18 @@
+package com.matdori.matdori.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * 족보가 작성됐을 때 발행하는 이벤트. 삭제는 JokbosDeletedEvent로 발행한다.
+ */
+@Getter
+@AllArgsConstructor
+public class JokboCreatedEvent {
+
+    private final Long storeId;
+    // 족보가 작성된 시각. 날짜별 순위 버킷을 고를 때 사용한다.
+    private final LocalDateTime createdAt;
+}
@@ -0,0 +1,44 @@
+package com.matdori.matdori.event;
+
+import com.matdori.matdori.repositoy.JokboRankingRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 족보 작성/삭제가 커밋된 뒤에 Redis 날짜별 족보 작성 수 증감하기.
+ * 홈 화면 캐시가 비워지기 전에 반영해야 캐시가 예전 순위로 다시 채워지지 않기 때문에 가장 먼저 실행한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class JokboRankingListener {
+
+    private final JokboRankingRepository jokboRankingRepository;
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener
+    public void onJokboCreated(JokboCreatedEvent event) {
+        if(event.getCreatedAt() == null)
+            return;
+
+        jokboRankingRepository.increase(event.getStoreId(), event.getCreatedAt().toLocalDate(), 1);
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener
+    public void onJokbosDeleted(JokbosDeletedEvent event) {
+        Map<LocalDate, Map<Long, Long>> deltasByDay = new HashMap<>();
+        event.getCountsByDay().forEach((day, counts) -> {
+            Map<Long, Long> deltas = new HashMap<>();
+            counts.forEach((storeId, count) -> deltas.put(storeId, -count));
+            deltasByDay.put(day, deltas);
+        });
+        jokboRankingRepository.increaseAll(deltasByDay);
+    }
+}
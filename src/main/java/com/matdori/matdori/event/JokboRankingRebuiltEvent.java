@@ -0,0 +1,7 @@
+package com.matdori.matdori.event;
+
+/**
+ * Redis 날짜별 족보 작성 수를 족보 테이블로 다시 만들었을 때 발행하는 이벤트.
+ */
+public class JokboRankingRebuiltEvent {
+}
@@ -0,0 +1,21 @@
+package com.matdori.matdori.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * 족보 여러 개를 한 번에 삭제했을 때 발행하는 이벤트.
+ * 족보마다 이벤트를 발행하면 리스너마다 Redis를 족보 수만큼 호출하게 되어서 한 번에 모아서 보낸다.
+ */
+@Getter
+@AllArgsConstructor
+public class JokbosDeletedEvent {
+
+    // 가게별 삭제된 족보 수
+    private final Map<Long, Long> countsByStore;
+    // 작성 날짜별, 가게별 삭제된 족보 수. 작성 시각이 없는 족보는 빠진다.
+    private final Map<LocalDate, Map<Long, Long>> countsByDay;
+}
@@ -0,0 +1,7 @@
+package com.matdori.matdori.event;
+
+/**
+ * 공지사항이 저장/삭제됐을 때 발행하는 이벤트.
+ */
+public class NoticeChangedEvent {
+}
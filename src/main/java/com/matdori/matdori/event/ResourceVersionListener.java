@@ -0,0 +1,27 @@
+package com.matdori.matdori.event;
+
+import com.matdori.matdori.repositoy.ResourceVersionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * 공지사항이나 가게/메뉴 정보가 바뀌면 커밋 후에 리소스 버전 올리기.
+ * 커밋 전에 올리면 다른 요청이 커밋 전 데이터를 새 버전의 ETag로 응답할 수 있다.
+ */
+@Component
+@RequiredArgsConstructor
+public class ResourceVersionListener {
+
+    private final ResourceVersionRepository resourceVersionRepository;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNoticeChanged(NoticeChangedEvent event) {
+        resourceVersionRepository.increase(ResourceVersionRepository.NOTICE);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        resourceVersionRepository.increase(ResourceVersionRepository.CATALOG);
+    }
+}
@@ -0,0 +1,30 @@
+package com.matdori.matdori.event;
+
+import com.matdori.matdori.config.CacheConfig;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * 가게나 메뉴 정보가 바뀌면 커밋 후에 가게 메뉴 캐시와 카테고리별 가게 수 캐시 비우기.
+ */
+@Component
+@RequiredArgsConstructor
+public class StoreMenuCacheEvictionListener {
+
+    private final CacheManager cacheManager;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        clear(CacheConfig.STORE_MENU);
+        clear(CacheConfig.STORE_COUNT);
+    }
+
+    private void clear(String cacheName) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if(cache != null)
+            cache.clear();
+    }
+}
@@ -18,6 +18,8 @@ public enum ErrorCode {
     INSUFFICIENT_PRIVILEGES(HttpStatus.FORBIDDEN, "권한이 없는 정보입니다."),
     INVALID_REQUIRED_COOKIE(HttpStatus.BAD_REQUEST, "쿠키가 누락되었습니다."),
     INCOMPLETE_EMAIL_VERIFICATION(HttpStatus.UNAUTHORIZED, "이메일 인증이 필요합니다."),
+    TOO_MANY_VERIFICATION_REQUESTS(HttpStatus.TOO_MANY_REQUESTS, "인증 메일 요청 횟수를 초과했습니다. 잠시 후 다시 시도해주세요."),
+    TOO_MANY_VERIFICATION_ATTEMPTS(HttpStatus.TOO_MANY_REQUESTS, "인증번호를 너무 많이 틀렸습니다. 잠시 후 다시 시도해주세요."),
     DUPLICATED_NICKNAME(HttpStatus.CONFLICT, "이미 사용 중인 닉네임입니다."),
     INVALID_NICKNAME_FORMAT(HttpStatus.BAD_REQUEST, "잘못된 이메일 형식입니다."),
     NOT_EXISTED_JOKBO(HttpStatus.NOT_FOUND, "존재하지 않는 족보입니다."),
@@ -31,10 +33,12 @@ public enum ErrorCode {
     INVALID_STORE_LISTING_ORDER(HttpStatus.BAD_REQUEST, "잘못된 정렬값입니다."),
     UNSUPPORTED_FILE_EXTENSION(HttpStatus.BAD_REQUEST, "지원하지 않는 이미지 확장자입니다. jpg, jpeg, png 파일만 사용해주세요."),
     NOT_EXISTED_FILE_EXTENSION(HttpStatus.BAD_REQUEST, "이미지 확장자가 존재하지 않습니다."),
+    IMAGE_UPLOAD_FAILED(HttpStatus.INTERNAL_SERVER_ERROR, "이미지 업로드에 실패했습니다."),
     NOT_EXISTED_SELECTED_JOKBO(HttpStatus.BAD_REQUEST, "하나 이상의 족보를 선택해야 합니다."),
     NOT_EXISTED_SELECTED_JOKBO_COMMENT(HttpStatus.BAD_REQUEST, "하나 이상의 댓글을 선택해야 합니다."),
     NOT_EXISTED_JOKBO_COMMENT_FAVORITE(HttpStatus.BAD_REQUEST, "유저가 좋아요하지 않은 족보입니다."),
-    NOT_EXISTED_SORTING_TYPE(HttpStatus.BAD_REQUEST, "존재하지 않는 정렬타입입니다.");
+    NOT_EXISTED_SORTING_TYPE(HttpStatus.BAD_REQUEST, "존재하지 않는 정렬타입입니다."),
+    STORE_PAGE_TIMEOUT(HttpStatus.SERVICE_UNAVAILABLE, "가게 화면 조회 시간이 초과됐습니다. 잠시 후 다시 시도해주세요.");
 
     private HttpStatus status;
     private String message;
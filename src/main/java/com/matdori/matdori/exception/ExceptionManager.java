@@ -162,6 +162,18 @@ public class ExceptionManager {
                 .body(Response.error(e.getErrorCode().name()));
     }
 
+    @ExceptionHandler(TooManyVerificationRequestsException.class)
+    public ResponseEntity<?> tooManyVerificationRequestsException(TooManyVerificationRequestsException e) {
+        return ResponseEntity.status(e.getErrorCode().getStatus())
+                .body(Response.error(e.getErrorCode().name()));
+    }
+
+    @ExceptionHandler(ImageUploadFailedException.class)
+    public ResponseEntity<?> imageUploadFailedException(ImageUploadFailedException e) {
+        return ResponseEntity.status(e.getErrorCode().getStatus())
+                .body(Response.error(e.getErrorCode().name()));
+    }
+
     @ExceptionHandler(NotExistedSelectedJokboException.class)
     public ResponseEntity<?> notExistedSelectedJokboException(NotExistedSelectedJokboException e) {
         return ResponseEntity.status(e.getErrorCode().getStatus())
@@ -184,4 +196,10 @@ public class ExceptionManager {
         return ResponseEntity.status(e.getErrorCode().getStatus())
                 .body(Response.error(e.getErrorCode().name()));
     }
+
+    @ExceptionHandler(StorePageTimeoutException.class)
+    public ResponseEntity<?> storePageTimeoutException(StorePageTimeoutException e){
+        return ResponseEntity.status(e.getErrorCode().getStatus())
+                .body(Response.error(e.getErrorCode().name()));
+    }
 }
@@ -0,0 +1,11 @@
+package com.matdori.matdori.exception;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class TooManyVerificationRequestsException extends RuntimeException {
+
+    private ErrorCode errorCode;
+}
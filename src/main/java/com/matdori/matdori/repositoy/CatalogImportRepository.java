@@ -0,0 +1,192 @@
+package com.matdori.matdori.repositoy;
+
+import com.matdori.matdori.domain.OpenHours;
+import com.matdori.matdori.domain.StoreCategory;
+import com.matdori.matdori.domain.StoreRatingSummary;
+import com.matdori.matdori.repositoy.Dto.CatalogStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * 가게 일괄 등록을 위한 JDBC 배치 쿼리.
+ *
+ * 가게, 카테고리, 메뉴는 IDENTITY로 id를 만들어서 Hibernate가 insert를 배치로 묶지 못한다.
+ * 그래서 id 시퀀스에서 필요한 개수만큼 한 번에 id를 받아 두고, id를 직접 넣는 insert를 JDBC 배치로 보낸다.
+ */
+@Repository
+@RequiredArgsConstructor
+public class CatalogImportRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    /**
+     * 이름과 주소가 같은 가게의 id 조회하기. 결과의 키는 storeKey(이름, 주소).
+     */
+    public Map<String, Long> findStoreIds(Collection<String> names) {
+        Map<String, Long> storeIds = new HashMap<>();
+        if(names.isEmpty())
+            return storeIds;
+
+        namedParameterJdbcTemplate.query(
+                "SELECT store_index, name, address FROM store WHERE name IN (:names)",
+                new MapSqlParameterSource("names", names),
+                rs -> {
+                    storeIds.put(storeKey(rs.getString("name"), rs.getString("address")), rs.getLong("store_index"));
+                });
+        return storeIds;
+    }
+
+    /**
+     * 새 가게 저장하기. 저장한 가게를 id와 함께 돌려준다.
+     */
+    public Map<Long, CatalogStore> insertStores(List<CatalogStore> stores) {
+        Map<Long, CatalogStore> storesById = new LinkedHashMap<>();
+        if(stores.isEmpty())
+            return storesById;
+
+        List<Long> ids = nextIds("store", "store_index", stores.size());
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> args = new ArrayList<>(stores.size());
+        for(int i = 0; i < stores.size(); i++) {
+            CatalogStore store = stores.get(i);
+            storesById.put(ids.get(i), store);
+
+            List<Object> row = new ArrayList<>();
+            row.add(ids.get(i));
+            row.addAll(storeColumns(store));
+            row.add(now);
+            args.add(row.toArray());
+        }
+
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO store (store_index, name, category, phone_number, address, img_url, " +
+                        "monday, tuesday, wednesday, thursday, friday, saturday, sunday, created_at) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", args);
+        return storesById;
+    }
+
+    /**
+     * 이미 있는 가게의 정보를 파일의 값으로 덮어쓰기.
+     */
+    public void updateStores(Map<Long, CatalogStore> storesById) {
+        List<Object[]> args = new ArrayList<>(storesById.size());
+        storesById.forEach((id, store) -> {
+            List<Object> row = new ArrayList<>(storeColumns(store));
+            row.add(id);
+            args.add(row.toArray());
+        });
+
+        jdbcTemplate.batchUpdate(
+                "UPDATE store SET name = ?, category = ?, phone_number = ?, address = ?, img_url = ?, " +
+                        "monday = ?, tuesday = ?, wednesday = ?, thursday = ?, friday = ?, saturday = ?, sunday = ? " +
+                        "WHERE store_index = ?", args);
+    }
+
+    /**
+     * 가게들의 메뉴와 카테고리 지우기. 다시 등록할 때 파일의 메뉴로 바꾸기 위해 쓴다.
+     */
+    public void deleteCategoriesAndMenus(Collection<Long> storeIds) {
+        if(storeIds.isEmpty())
+            return;
+
+        MapSqlParameterSource params = new MapSqlParameterSource("storeIds", storeIds);
+        namedParameterJdbcTemplate.update(
+                "DELETE FROM menu WHERE category_index IN " +
+                        "(SELECT category_index FROM category WHERE store_index IN (:storeIds))", params);
+        namedParameterJdbcTemplate.update("DELETE FROM category WHERE store_index IN (:storeIds)", params);
+    }
+
+    /**
+     * 가게들의 카테고리와 메뉴 저장하기.
+     */
+    public void insertCategoriesAndMenus(Map<Long, CatalogStore> storesById) {
+        int categoryCount = 0;
+        int menuCount = 0;
+        for(CatalogStore store : storesById.values()) {
+            categoryCount += store.getCategories().size();
+            for(CatalogStore.CatalogCategory category : store.getCategories())
+                menuCount += category.getMenus().size();
+        }
+        if(categoryCount == 0)
+            return;
+
+        Iterator<Long> categoryIds = nextIds("category", "category_index", categoryCount).iterator();
+        Iterator<Long> menuIds = nextIds("menu", "menu_index", menuCount).iterator();
+        List<Object[]> categoryArgs = new ArrayList<>(categoryCount);
+        List<Object[]> menuArgs = new ArrayList<>(menuCount);
+
+        storesById.forEach((storeId, store) -> {
+            for(CatalogStore.CatalogCategory category : store.getCategories()) {
+                Long categoryId = categoryIds.next();
+                categoryArgs.add(new Object[]{categoryId, storeId, category.getName()});
+
+                for(CatalogStore.CatalogMenu menu : category.getMenus())
+                    menuArgs.add(new Object[]{menuIds.next(), categoryId, menu.getName(), menu.getPrice(), menu.getImgUrl()});
+            }
+        });
+
+        jdbcTemplate.batchUpdate("INSERT INTO category (category_index, store_index, name) VALUES (?, ?, ?)", categoryArgs);
+        if(!menuArgs.isEmpty())
+            jdbcTemplate.batchUpdate(
+                    "INSERT INTO menu (menu_index, category_index, name, price, img_url) VALUES (?, ?, ?, ?, ?)", menuArgs);
+    }
+
+    /**
+     * 가게마다 별점 집계가 하나씩 존재하도록 비어 있는 집계를 만들기.
+     * 이미 있으면 집계는 그대로 두고 카테고리만 맞춘다.
+     */
+    public void upsertRatingSummaries(Map<Long, CatalogStore> storesById) {
+        double emptyScore = StoreRatingSummary.bayesianScore(0, 0);
+        List<Object[]> args = new ArrayList<>(storesById.size());
+        storesById.forEach((id, store) -> args.add(new Object[]{
+                id, StoreCategory.nameOf(store.getCategory()).name(), emptyScore, emptyScore, emptyScore, emptyScore}));
+
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO store_rating_summary " +
+                        "(store_index, category, flavor_rating_sum, under_priced_rating_sum, clean_rating_sum, jokbo_count, rating_score, " +
+                        "total_score, flavor_score, under_priced_score, clean_score) " +
+                        "VALUES (?, ?, 0, 0, 0, 0, 0, ?, ?, ?, ?) " +
+                        "ON CONFLICT (store_index) DO UPDATE SET category = EXCLUDED.category", args);
+    }
+
+    public static String storeKey(String name, String address) {
+        return name + "\n" + (address == null ? "" : address);
+    }
+
+    /**
+     * 테이블의 id 시퀀스에서 id를 count개 받아오기. 한 번의 쿼리로 끝난다.
+     */
+    private List<Long> nextIds(String table, String idColumn, int count) {
+        if(count == 0)
+            return Collections.emptyList();
+
+        return jdbcTemplate.queryForList(
+                "SELECT nextval(pg_get_serial_sequence('" + table + "', '" + idColumn + "')) FROM generate_series(1, ?)",
+                Long.class, count);
+    }
+
+    private List<Object> storeColumns(CatalogStore store) {
+        OpenHours openHours = store.getOpenHours() == null ? new OpenHours() : store.getOpenHours();
+        return Arrays.asList(
+                store.getName(),
+                StoreCategory.nameOf(store.getCategory()).name(),
+                store.getPhoneNumber(),
+                store.getAddress(),
+                store.getImgUrl(),
+                openHours.getMonday(),
+                openHours.getTuesday(),
+                openHours.getWednesday(),
+                openHours.getThursday(),
+                openHours.getFriday(),
+                openHours.getSaturday(),
+                openHours.getSunday());
+    }
+}
@@ -0,0 +1,74 @@
+package com.matdori.matdori.repositoy;
+
+import com.matdori.matdori.domain.Department;
+import com.matdori.matdori.domain.DepartmentStoreCount;
+import com.matdori.matdori.repositoy.Dto.StoreListByDepartment;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+import static com.matdori.matdori.repositoy.StoreRatingSummaryRepository.*;
+
+@Repository
+@RequiredArgsConstructor
+public class DepartmentStoreCountRepository {
+
+    private final EntityManager em;
+
+    /**
+     * 학과의 가게 족보 개수 증감하기. 처음 작성된 학과/가게 조합이면 행을 만든다.
+     */
+    public void increase(Department department, Long storeId, long delta) {
+        em.createNativeQuery(
+                        "INSERT INTO department_store_count (department, store_index, jokbo_count) " +
+                                "VALUES (:department, :storeId, GREATEST(:delta, 0)) " +
+                                "ON CONFLICT (department, store_index) " +
+                                "DO UPDATE SET jokbo_count = GREATEST(department_store_count.jokbo_count + :delta, 0)")
+                .setParameter("department", department.name())
+                .setParameter("storeId", storeId)
+                .setParameter("delta", delta)
+                .executeUpdate();
+    }
+
+    /**
+     * 학과에서 족보가 가장 많이 작성된 가게 조회하기. 별점 집계를 같이 조인해서 한 번에 가져온다.
+     */
+    public List<StoreListByDepartment> findTopStores(Department department, int limit) {
+        return em.createQuery(
+                        "SELECT new com.matdori.matdori.repositoy.Dto.StoreListByDepartment(s.id, s.name, s.imgUrl, " + TOTAL_RATING + ") " +
+                                "FROM DepartmentStoreCount d " +
+                                "JOIN Store s ON s.id = d.storeId " +
+                                JOIN_RATING_SUMMARY +
+                                "WHERE d.department =: department " +
+                                "AND d.jokboCount > 0 " +
+                                "ORDER BY d.jokboCount DESC, d.storeId DESC", StoreListByDepartment.class)
+                .setParameter("department", department)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /**
+     * 학과별 가게 족보 개수 행 개수 구하기.
+     */
+    public Long countAll() {
+        return em.createQuery("SELECT COUNT(d) FROM DepartmentStoreCount d", Long.class)
+                .getSingleResult();
+    }
+
+    /**
+     * 족보 테이블로부터 학과별 가게 족보 개수를 다시 만들기.
+     */
+    public void rebuildAll() {
+        em.createNativeQuery("DELETE FROM department_store_count").executeUpdate();
+        em.createNativeQuery(
+                        "INSERT INTO department_store_count (department, store_index, jokbo_count) " +
+                                "SELECT u.department, j.store_index, COUNT(*) " +
+                                "FROM jokbo j " +
+                                "JOIN users u ON u.user_index = j.user_index " +
+                                "WHERE u.department IS NOT NULL " +
+                                "GROUP BY u.department, j.store_index")
+                .executeUpdate();
+    }
+}
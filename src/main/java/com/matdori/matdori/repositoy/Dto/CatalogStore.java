@@ -0,0 +1,40 @@
+package com.matdori.matdori.repositoy.Dto;
+
+import com.matdori.matdori.domain.OpenHours;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 가게 일괄 등록 파일의 가게 하나. 카테고리는 한글명(한식, 중식 ...)으로 적는다.
+ */
+@Getter @Setter
+@NoArgsConstructor
+public class CatalogStore {
+
+    private String name;
+    private String category;
+    private String phoneNumber;
+    private String address;
+    private String imgUrl;
+    private OpenHours openHours;
+    private List<CatalogCategory> categories = new ArrayList<>();
+
+    @Getter @Setter
+    @NoArgsConstructor
+    public static class CatalogCategory {
+        private String name;
+        private List<CatalogMenu> menus = new ArrayList<>();
+    }
+
+    @Getter @Setter
+    @NoArgsConstructor
+    public static class CatalogMenu {
+        private String name;
+        private String price;
+        private String imgUrl;
+    }
+}
@@ -0,0 +1,36 @@
+package com.matdori.matdori.repositoy.Dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * 족보 댓글 목록의 한 줄.
+ * 작성자 닉네임과 좋아요 개수는 댓글 조회 쿼리에서, 조회하는 유저의 좋아요 id는 별도 IN 쿼리로 채운다.
+ */
+@Getter
+@NoArgsConstructor
+public class JokboCommentItem {
+    private Long commentIndex;
+    private LocalDateTime createdAt;
+    private String contents;
+    private Boolean isDeleted;
+    private Long userIndex;
+    private String nickname;
+    private Integer favoriteCnt;
+
+    @Setter
+    private Long commentFavoriteId;
+
+    public JokboCommentItem(Long commentIndex, LocalDateTime createdAt, String contents, Boolean isDeleted, Long userIndex, String nickname, Integer favoriteCnt) {
+        this.commentIndex = commentIndex;
+        this.createdAt = createdAt;
+        this.contents = contents;
+        this.isDeleted = isDeleted;
+        this.userIndex = userIndex;
+        this.nickname = nickname;
+        this.favoriteCnt = favoriteCnt;
+    }
+}
@@ -3,9 +3,11 @@ package com.matdori.matdori.repositoy.Dto;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 
+import java.io.Serializable;
+
 @Getter
 @NoArgsConstructor
-public class JokboRichStore {
+public class JokboRichStore implements Serializable {
     private Long storeIndex;
     private String name;
     private String imgUrl;
@@ -4,10 +4,12 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 
+import java.io.Serializable;
+
 @Getter
 @NoArgsConstructor
 @AllArgsConstructor
-public class MatdoriTop3 {
+public class MatdoriTop3 implements Serializable {
 
     private Long storeIndex;
     private String name;
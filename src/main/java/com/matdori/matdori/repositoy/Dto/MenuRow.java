@@ -0,0 +1,18 @@
+package com.matdori.matdori.repositoy.Dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 가게 메뉴 조회 결과의 한 줄. 메뉴가 없는 카테고리는 메뉴 값들이 null이다.
+ */
+@Getter
+@AllArgsConstructor
+public class MenuRow {
+
+    private Long categoryId;
+    private String categoryName;
+    private String menuName;
+    private String price;
+    private String imgUrl;
+}
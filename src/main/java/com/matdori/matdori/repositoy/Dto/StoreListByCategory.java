@@ -14,19 +14,13 @@ public class StoreListByCategory {
     private String imgUrl;
     private Integer jokboCnt;
 
-    public StoreListByCategory(Long storeId, String name, StoreCategory category, Double flavorRating, Double underPricedRating, Double cleanRating, String imgUrl, Integer jokboCnt) {
+    // totalRating은 가게 별점 집계에 저장된 값 그대로 내려줘야 다음 페이지 커서로 다시 받았을 때 정확히 일치한다.
+    public StoreListByCategory(Long storeId, String name, StoreCategory category, Double totalRating, String imgUrl, Integer jokboCnt) {
         this.storeId =storeId;
         this.name = name;
         this.category = category.getName();
-        Double totalRating = getScore(flavorRating) +getScore(underPricedRating) + getScore(cleanRating);
-        if(totalRating != 0.0) this.totalRating = totalRating/3;
-        else this.totalRating = 0.0;
+        this.totalRating = totalRating;
         this.imgUrl = imgUrl;
         this.jokboCnt = jokboCnt;
     }
-    public Double getScore(Double score){
-        if(score == null)
-            return 0.0;
-        else return score;
-    }
 }
@@ -3,16 +3,20 @@ package com.matdori.matdori.repositoy.Dto;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 
+import java.io.Serializable;
+
 @Getter
 @NoArgsConstructor
-public class StoreListByDepartment {
+public class StoreListByDepartment implements Serializable {
     private Long storeIndex;
     private String name;
     private String imgUrl;
+    private Double totalRating;
 
-    public StoreListByDepartment(Long storeIndex, String name, String imgUrl) {
+    public StoreListByDepartment(Long storeIndex, String name, String imgUrl, Double totalRating) {
         this.storeIndex = storeIndex;
         this.name = name;
         this.imgUrl = imgUrl;
+        this.totalRating = totalRating;
     }
 }
@@ -0,0 +1,63 @@
+package com.matdori.matdori.repositoy.Dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 한 가게의 카테고리별 메뉴. 캐시에 저장해서 여러 요청이 같이 쓰므로 만든 뒤에는 바뀌지 않는다.
+ */
+@Getter
+public class StoreMenu implements Serializable {
+
+    private final List<MenuCategory> categories;
+
+    private StoreMenu(List<MenuCategory> categories) {
+        this.categories = Collections.unmodifiableList(categories);
+    }
+
+    /**
+     * 카테고리 id 순으로 정렬된 조회 결과를 카테고리별로 묶기.
+     */
+    public static StoreMenu from(List<MenuRow> rows) {
+        List<MenuCategory> categories = new ArrayList<>();
+        Long categoryId = null;
+        String categoryName = null;
+        List<MenuItem> items = new ArrayList<>();
+
+        for(MenuRow row : rows) {
+            if(!row.getCategoryId().equals(categoryId)) {
+                if(categoryId != null)
+                    categories.add(new MenuCategory(categoryName, Collections.unmodifiableList(items)));
+                categoryId = row.getCategoryId();
+                categoryName = row.getCategoryName();
+                items = new ArrayList<>();
+            }
+            if(row.getMenuName() != null)
+                items.add(new MenuItem(row.getMenuName(), row.getPrice(), row.getImgUrl()));
+        }
+        if(categoryId != null)
+            categories.add(new MenuCategory(categoryName, Collections.unmodifiableList(items)));
+
+        return new StoreMenu(categories);
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class MenuCategory implements Serializable {
+        private final String name;
+        private final List<MenuItem> menus;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class MenuItem implements Serializable {
+        private final String name;
+        private final String price;
+        private final String imgUrl;
+    }
+}
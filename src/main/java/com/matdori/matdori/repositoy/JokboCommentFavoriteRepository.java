@@ -6,8 +6,11 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Repository;
 
 import javax.persistence.EntityManager;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Repository
 @RequiredArgsConstructor
@@ -32,6 +35,18 @@ public class JokboCommentFavoriteRepository {
         return Optional.ofNullable(jokboCommentFavorite);
     }
 
+    /**
+     * 족보 삭제시 족보에 달린 댓글들의 좋아요 삭제
+     */
+    public void deleteAllByJokboIds(List<Long> jokboIds) {
+        em.createQuery(
+                        "DELETE FROM JokboCommentFavorite f " +
+                                "WHERE f.jokboComment.id IN (" +
+                                "SELECT c.id FROM JokboComment c WHERE c.jokbo.id IN :jokboIds)")
+                .setParameter("jokboIds", jokboIds)
+                .executeUpdate();
+    }
+
     /**
      * 댓글 좋아요 취소하기.
      */
@@ -54,4 +69,22 @@ public class JokboCommentFavoriteRepository {
 
         return jokboCommentFavorite.stream().findAny();
     }
+
+    /**
+     * 여러 댓글에 대해 유저가 누른 좋아요 id를 한 번에 조회하기.
+     * 댓글 id -> 좋아요 id 맵으로 돌려주고, 좋아요를 누르지 않은 댓글은 맵에 없다.
+     */
+    public Map<Long, Long> findIdsByCommentIds(Long userId, List<Long> commentIds) {
+        if(commentIds.isEmpty())
+            return Collections.emptyMap();
+
+        return em.createQuery(
+                        "SELECT f.jokboComment.id, f.id FROM JokboCommentFavorite f " +
+                                "WHERE f.user.id =: userId " +
+                                "AND f.jokboComment.id IN :commentIds ", Object[].class)
+                .setParameter("userId", userId)
+                .setParameter("commentIds", commentIds)
+                .getResultList().stream()
+                .collect(Collectors.toMap(row -> (Long) row[0], row -> (Long) row[1]));
+    }
 }
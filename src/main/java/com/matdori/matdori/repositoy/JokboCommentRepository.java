@@ -2,12 +2,14 @@ package com.matdori.matdori.repositoy;
 
 import com.matdori.matdori.domain.Jokbo;
 import com.matdori.matdori.domain.JokboComment;
+import com.matdori.matdori.repositoy.Dto.JokboCommentItem;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Repository;
 
 import javax.persistence.EntityManager;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Repository
 @RequiredArgsConstructor
@@ -22,14 +24,21 @@ public class JokboCommentRepository {
         em.persist(jokboComment);
     }
 
+    // 족보 댓글 목록 조회에서 작성자 닉네임과 좋아요 개수까지 한 번에 가져오는 SELECT 절
+    private static final String COMMENT_ITEM =
+            "SELECT new com.matdori.matdori.repositoy.Dto.JokboCommentItem(" +
+                    "c.id, c.createdAt, c.contents, c.isDeleted, u.id, u.nickname, c.likeCount) " +
+                    "FROM JokboComment c " +
+                    "JOIN c.user u ";
+
     /**
      * 족보에 매핑된 모든 댓글 조회하기.
      */
-    public List<JokboComment> findAllJokboComments(Long id) {
+    public List<JokboCommentItem> findAllJokboComments(Long id) {
         return em.createQuery(
-                "SELECT c FROM JokboComment c "+
+                COMMENT_ITEM +
                         "WHERE c.jokbo.id = :id AND c.isDeleted = false " +
-                        "ORDER BY c.id DESC", JokboComment.class)
+                        "ORDER BY c.id DESC", JokboCommentItem.class)
                 .setParameter("id", id)
                 .setMaxResults(14)
                 .getResultList();
@@ -67,18 +76,45 @@ public class JokboCommentRepository {
     /**
      * 특정 족보에 달린 댓글 조회 페이징 처리하여 조회하기.
      */
-    public List<JokboComment> findCommentsAtJokboDescendingById(Long jokboId, Long cursor) {
+    public List<JokboCommentItem> findCommentsAtJokboDescendingById(Long jokboId, Long cursor) {
         return em.createQuery(
-                "SELECT c FROM  JokboComment c " +
-                        "JOIN FETCH c.jokbo j " +
+                COMMENT_ITEM +
                         "WHERE c.isDeleted = false AND c.jokbo.id =: jokboId AND c.id < :cursor " +
-                        "ORDER BY  c.id DESC", JokboComment.class)
+                        "ORDER BY  c.id DESC", JokboCommentItem.class)
                 .setParameter("jokboId" ,jokboId)
                 .setParameter("cursor", cursor)
                 .setMaxResults(14)
                 .getResultList();
     }
 
+    /**
+     * 댓글 좋아요 개수 증감하기.
+     */
+    public void increaseLikeCount(Long commentId, int delta) {
+        em.createQuery(
+                        "UPDATE JokboComment c " +
+                                "SET c.likeCount = c.likeCount + :delta " +
+                                "WHERE c.id =: commentId")
+                .setParameter("delta", delta)
+                .setParameter("commentId", commentId)
+                .executeUpdate();
+    }
+
+    /**
+     * 댓글 좋아요 개수를 실제 좋아요 개수로 맞추기.
+     * 값이 다른 댓글만 갱신한다.
+     */
+    public int syncLikeCounts() {
+        return em.createNativeQuery(
+                        "UPDATE jokbo_comment c " +
+                                "SET like_count = f.like_count " +
+                                "FROM (SELECT c2.comment_index, " +
+                                "(SELECT COUNT(*) FROM jokbo_comment_favorite cf WHERE cf.comment_index = c2.comment_index) AS like_count " +
+                                "FROM jokbo_comment c2) f " +
+                                "WHERE c.comment_index = f.comment_index AND c.like_count <> f.like_count")
+                .executeUpdate();
+    }
+
     /**
      * 족보 댓글 id로 족보 댓글 하나 조회하기.
      */
@@ -94,14 +130,51 @@ public class JokboCommentRepository {
         em.remove(em.find(JokboComment.class, id));
     }
 
+    /**
+     * 유저가 쓴 댓글들을 삭제 상태로 바꾸고, 족보의 댓글 개수를 족보별로 한 번에 빼기.
+     * 문장 하나로 처리하고 실제로 바뀐 댓글 id를 돌려준다. 이미 삭제됐거나 다른 사람이 쓴 댓글은 바뀌지 않는다.
+     */
+    @SuppressWarnings("unchecked")
+    public List<Long> softDelete(List<Long> commentIds, Long userId) {
+        List<Number> deletedIds = em.createNativeQuery(
+                        "WITH deleted AS (" +
+                                "UPDATE jokbo_comment SET is_deleted = true " +
+                                "WHERE comment_index IN (:commentIds) AND user_index = :userId AND is_deleted = false " +
+                                "RETURNING comment_index, jokbo_index" +
+                                "), counted AS (" +
+                                "UPDATE jokbo j SET comment_count = j.comment_count - d.deleted_count " +
+                                "FROM (SELECT jokbo_index, COUNT(*) AS deleted_count FROM deleted GROUP BY jokbo_index) d " +
+                                "WHERE j.jokbo_index = d.jokbo_index" +
+                                ") " +
+                                "SELECT comment_index FROM deleted")
+                .setParameter("commentIds", commentIds)
+                .setParameter("userId", userId)
+                .getResultList();
+
+        return deletedIds.stream()
+                .map(Number::longValue)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * id들로 댓글 조회하기.
+     */
+    public List<JokboComment> findAllByIds(List<Long> ids) {
+        return em.createQuery(
+                        "SELECT c FROM JokboComment c " +
+                                "WHERE c.id IN :ids", JokboComment.class)
+                .setParameter("ids", ids)
+                .getResultList();
+    }
+
     /**
      * 족보 삭제시 매핑된 모든 댓글 삭제
      */
-    public void deleteAllByJokboId(Long jokboId) {
+    public void deleteAllByJokboIds(List<Long> jokboIds) {
         em.createQuery(
                         "DELETE FROM JokboComment c " +
-                                "WHERE c.jokbo.id =: jokboId")
-                .setParameter("jokboId", jokboId)
+                                "WHERE c.jokbo.id IN :jokboIds")
+                .setParameter("jokboIds", jokboIds)
                 .executeUpdate();
     }
 }
@@ -0,0 +1,157 @@
+package com.matdori.matdori.repositoy;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Repository;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Redis에 저장하는 족보 개수 카운터.
+ * 전체 족보 개수와 가게별 족보 개수를 따로 저장하고, 족보 작성/삭제가 커밋된 뒤에 증감한다.
+ */
+@Repository
+@RequiredArgsConstructor
+public class JokboCountRepository {
+
+    private static final String TOTAL_KEY = "count:jokbo";
+    private static final String STORE_KEY_PREFIX = "count:jokbo:store:";
+
+    // 키가 있을 때만 증감한다. 키가 없을 때 증감하면 0부터 세게 되어 실제 개수와 달라지기 때문.
+    private static final RedisScript<Long> INCREASE_IF_EXISTS = new DefaultRedisScript<>(
+            "for i, key in ipairs(KEYS) do " +
+                    "if redis.call('EXISTS', key) == 1 then redis.call('INCRBY', key, ARGV[1]) end " +
+                    "end " +
+                    "return 1", Long.class);
+
+    // KEYS[i]의 카운터를 ARGV[i]만큼 증감한다. 키가 있을 때만.
+    private static final RedisScript<Long> INCREASE_EACH_IF_EXISTS = new DefaultRedisScript<>(
+            "for i, key in ipairs(KEYS) do " +
+                    "if redis.call('EXISTS', key) == 1 then redis.call('INCRBY', key, ARGV[i]) end " +
+                    "end " +
+                    "return 1", Long.class);
+
+    // KEYS[i]의 값이 ARGV[i]와 같을 때만 지운다.
+    private static final RedisScript<Long> DELETE_IF_UNCHANGED = new DefaultRedisScript<>(
+            "for i, key in ipairs(KEYS) do " +
+                    "if redis.call('GET', key) == ARGV[i] then redis.call('DEL', key) end " +
+                    "end " +
+                    "return 1", Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    /**
+     * 전체 족보 개수 조회하기.
+     */
+    public Optional<Long> findTotal() {
+        return toLong(redisTemplate.opsForValue().get(TOTAL_KEY));
+    }
+
+    /**
+     * 가게의 족보 개수 조회하기.
+     */
+    public Optional<Long> findByStore(Long storeId) {
+        return toLong(redisTemplate.opsForValue().get(storeKey(storeId)));
+    }
+
+    /**
+     * 키가 없을 때만 전체 족보 개수 저장하기.
+     */
+    public void initTotal(long count) {
+        redisTemplate.opsForValue().setIfAbsent(TOTAL_KEY, String.valueOf(count));
+    }
+
+    /**
+     * 키가 없을 때만 가게의 족보 개수 저장하기.
+     */
+    public void initByStore(Long storeId, long count) {
+        redisTemplate.opsForValue().setIfAbsent(storeKey(storeId), String.valueOf(count));
+    }
+
+    /**
+     * 전체 족보 개수와 가게의 족보 개수를 함께 증감하기.
+     */
+    public void increase(Long storeId, long delta) {
+        redisTemplate.execute(INCREASE_IF_EXISTS, Arrays.asList(TOTAL_KEY, storeKey(storeId)), String.valueOf(delta));
+    }
+
+    /**
+     * 여러 가게의 족보 개수와 전체 족보 개수를 스크립트 한 번으로 증감하기.
+     */
+    public void increaseAll(Map<Long, Long> deltasByStore) {
+        if(deltasByStore.isEmpty())
+            return;
+
+        List<String> keys = new ArrayList<>();
+        List<String> deltas = new ArrayList<>();
+        keys.add(TOTAL_KEY);
+        deltas.add(String.valueOf(deltasByStore.values().stream().mapToLong(Long::longValue).sum()));
+        deltasByStore.forEach((storeId, delta) -> {
+            keys.add(storeKey(storeId));
+            deltas.add(String.valueOf(delta));
+        });
+        redisTemplate.execute(INCREASE_EACH_IF_EXISTS, keys, deltas.toArray());
+    }
+
+    /**
+     * 테이블에서 센 개수와 다른 카운터 지우기. 지운 카운터는 다음 조회 때 테이블에서 다시 센다.
+     * 값을 덮어쓰면 개수를 센 뒤에 반영된 증감이 사라지기 때문에, 읽은 값 그대로일 때만 지운다.
+     * 아직 반영되지 않은 증감은 카운터가 지워지면 무시되고, 다시 셀 때 포함된다.
+     */
+    public void deleteMismatched(long total, Map<Long, Long> countsByStore) {
+        List<String> keys = redisTemplate.execute((RedisCallback<List<String>>) connection -> {
+            List<String> found = new ArrayList<>();
+            ScanOptions options = ScanOptions.scanOptions().match(STORE_KEY_PREFIX + "*").count(100).build();
+            try (Cursor<byte[]> cursor = connection.scan(options)) {
+                cursor.forEachRemaining(k -> found.add(new String(k, StandardCharsets.UTF_8)));
+            }
+            return found;
+        });
+        if(keys == null)
+            keys = new ArrayList<>();
+        keys.add(TOTAL_KEY);
+
+        List<String> values = redisTemplate.opsForValue().multiGet(keys);
+        if(values == null)
+            return;
+
+        List<String> mismatchedKeys = new ArrayList<>();
+        List<String> observedValues = new ArrayList<>();
+        for(int i = 0; i < keys.size(); i++) {
+            String key = keys.get(i);
+            String value = values.get(i);
+            if(value == null)
+                continue;
+
+            // 족보가 없는 가게의 카운터는 기대값이 없어서 지워진다.
+            Long expected = key.equals(TOTAL_KEY)
+                    ? Long.valueOf(total)
+                    : countsByStore.get(Long.valueOf(key.substring(STORE_KEY_PREFIX.length())));
+            if(expected == null || !value.equals(String.valueOf(expected))) {
+                mismatchedKeys.add(key);
+                observedValues.add(value);
+            }
+        }
+
+        if(!mismatchedKeys.isEmpty())
+            redisTemplate.execute(DELETE_IF_UNCHANGED, mismatchedKeys, observedValues.toArray());
+    }
+
+    private String storeKey(Long storeId) {
+        return STORE_KEY_PREFIX + storeId;
+    }
+
+    private Optional<Long> toLong(String value) {
+        return Optional.ofNullable(value).map(Long::valueOf);
+    }
+}
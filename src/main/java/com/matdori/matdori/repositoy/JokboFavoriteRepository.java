@@ -7,6 +7,7 @@ import org.springframework.stereotype.Repository;
 import javax.persistence.EntityManager;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Repository
 @RequiredArgsConstructor
@@ -24,15 +25,22 @@ public class JokboFavoriteRepository {
 
     /**
      * 족보 좋아요 정보 삭제하기.
+     * 실제로 삭제된 좋아요의 족보 id를 돌려줘서, 동시에 같은 좋아요를 취소해도 좋아요 개수는 한 번만 줄도록 한다.
      */
-    public void delete(List<Long> jokboIndices , Long userId){
-        em.createQuery(
-                        "DELETE FROM JokboFavorite f " +
-                                "WHERE f.id IN :jokboIndices AND f.user.id = :userId"
+    @SuppressWarnings("unchecked")
+    public List<Long> delete(List<Long> jokboIndices , Long userId){
+        List<Number> deletedJokboIds = em.createNativeQuery(
+                        "DELETE FROM jokbo_favorite " +
+                                "WHERE jokbo_favorite_index IN (:jokboIndices) AND user_index = :userId " +
+                                "RETURNING jokbo_index"
                 )
                 .setParameter("jokboIndices", jokboIndices)
                 .setParameter("userId", userId)
-                .executeUpdate();
+                .getResultList();
+
+        return deletedJokboIds.stream()
+                .map(Number::longValue)
+                .collect(Collectors.toList());
     }
 
     /**
@@ -43,7 +51,6 @@ public class JokboFavoriteRepository {
                 "SELECT DISTINCT f FROM User u " +
                         "JOIN u.jokboFavorites f " +
                         "JOIN FETCH f.jokbo j " +
-                        "LEFT JOIN FETCH j.jokboComments " +
                         "WHERE u.id =: id " +
                         "ORDER BY f.id DESC ", JokboFavorite.class)
                 .setParameter("id", userId)
@@ -56,7 +63,6 @@ public class JokboFavoriteRepository {
                         "SELECT DISTINCT f FROM User u " +
                                 "JOIN u.jokboFavorites f " +
                                 "JOIN FETCH f.jokbo j " +
-                                "LEFT JOIN FETCH j.jokboComments " +
                                 "WHERE u.id =: id AND f.id < :favoriteJokboId " +
                                 "ORDER BY f.id DESC ", JokboFavorite.class)
                 .setParameter("id", userId)
@@ -96,11 +102,11 @@ public class JokboFavoriteRepository {
     /**
      * 족보 삭제시 매핑된 모든 좋아요 정보 삭제
      */
-    public void deleteAllByJokboId(Long jokboId) {
+    public void deleteAllByJokboIds(List<Long> jokboIds) {
         em.createQuery(
                 "DELETE FROM JokboFavorite f " +
-                        "WHERE f.jokbo.id =: jokboId")
-                .setParameter("jokboId", jokboId)
+                        "WHERE f.jokbo.id IN :jokboIds")
+                .setParameter("jokboIds", jokboIds)
                 .executeUpdate();
     }
 }
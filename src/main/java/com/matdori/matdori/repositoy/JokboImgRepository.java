@@ -5,6 +5,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Repository;
 
 import javax.persistence.EntityManager;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -34,4 +35,26 @@ public class JokboImgRepository {
         JokboImg jokboImg = em.find(JokboImg.class, id);
         return Optional.ofNullable(jokboImg);
     }
+
+    /**
+     * 여러 족보의 이미지 조회하기.
+     */
+    public List<JokboImg> findAllByJokboIds(List<Long> jokboIds) {
+        return em.createQuery(
+                        "SELECT i FROM JokboImg i " +
+                                "WHERE i.jokbo.id IN :jokboIds", JokboImg.class)
+                .setParameter("jokboIds", jokboIds)
+                .getResultList();
+    }
+
+    /**
+     * 족보 삭제시 매핑된 모든 이미지 삭제
+     */
+    public void deleteAllByJokboIds(List<Long> jokboIds) {
+        em.createQuery(
+                        "DELETE FROM JokboImg i " +
+                                "WHERE i.jokbo.id IN :jokboIds")
+                .setParameter("jokboIds", jokboIds)
+                .executeUpdate();
+    }
 }
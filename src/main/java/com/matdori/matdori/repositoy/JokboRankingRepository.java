@@ -0,0 +1,191 @@
+package com.matdori.matdori.repositoy;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Repository;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+
+/**
+ * Redis에 저장하는 최근 30일 가게별 족보 작성 수 순위.
+ *
+ * ranking:jokbo:day:{yyyyMMdd}  하루 동안 가게별 족보 작성 수 (sorted set). 30일이 지나면 만료된다.
+ * ranking:jokbo:30d             최근 30일 버킷을 합친 결과. 1분 동안 재사용하고, 족보가 작성/삭제되면 지운다.
+ * ranking:jokbo:rebuild:{yyyyMMdd}  다시 만드는 중인 하루 버킷. 다 만든 뒤 한 번에 하루 버킷으로 바꾼다.
+ */
+@Repository
+@RequiredArgsConstructor
+public class JokboRankingRepository {
+
+    private static final String DAY_KEY_PREFIX = "ranking:jokbo:day:";
+    private static final String WINDOW_KEY = "ranking:jokbo:30d";
+    private static final String REBUILD_KEY_PREFIX = "ranking:jokbo:rebuild:";
+    private static final Duration REBUILD_EXPIRATION = Duration.ofMinutes(10);
+    private static final int WINDOW_DAYS = 30;
+    private static final Duration WINDOW_EXPIRATION = Duration.ofMinutes(1);
+    private static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.BASIC_ISO_DATE;
+
+    // 하루 버킷들의 가게 점수를 증감하고, 0 이하가 되면 지운다. 버킷 만료 시간도 같이 정하고 합친 결과를 지운다.
+    // KEYS: 하루 버킷들, 합친 결과. ARGV: 버킷마다 [만료 시각, 가게 수 n, (가게 id, 증감) n쌍].
+    private static final RedisScript<Long> INCREASE = new DefaultRedisScript<>(
+            "local a = 1 " +
+                    "for i = 1, #KEYS - 1 do " +
+                    "local expireAt = ARGV[a] " +
+                    "local n = tonumber(ARGV[a + 1]) " +
+                    "a = a + 2 " +
+                    "for j = 1, n do " +
+                    "local score = tonumber(redis.call('ZINCRBY', KEYS[i], ARGV[a + 1], ARGV[a])) " +
+                    "if score <= 0 then redis.call('ZREM', KEYS[i], ARGV[a]) end " +
+                    "a = a + 2 " +
+                    "end " +
+                    "redis.call('EXPIREAT', KEYS[i], expireAt) " +
+                    "end " +
+                    "redis.call('DEL', KEYS[#KEYS]) " +
+                    "return 1", Long.class);
+
+    // 합친 결과가 없으면 30일 버킷을 합쳐서 만들고, 상위 k개를 점수와 함께 반환한다.
+    private static final RedisScript<List> TOP = new DefaultRedisScript<>(
+            "local window = KEYS[#KEYS] " +
+                    "if redis.call('EXISTS', window) == 0 then " +
+                    "redis.call('ZUNIONSTORE', window, #KEYS - 1, unpack(KEYS, 1, #KEYS - 1)) " +
+                    "redis.call('PEXPIRE', window, ARGV[2]) " +
+                    "end " +
+                    "return redis.call('ZREVRANGE', window, 0, tonumber(ARGV[1]) - 1, 'WITHSCORES')", List.class);
+
+    // 다시 만든 버킷으로 하루 버킷을 한 번에 바꾸고 합친 결과를 지운다. 다시 만든 버킷이 없는 날은 지운다.
+    // KEYS: 하루 버킷 n개, 다시 만든 버킷 n개, 합친 결과. ARGV: 하루 버킷 만료 시각 n개.
+    private static final RedisScript<Long> SWAP = new DefaultRedisScript<>(
+            "local n = #ARGV " +
+                    "for i = 1, n do " +
+                    "if redis.call('EXISTS', KEYS[n + i]) == 1 then " +
+                    "redis.call('RENAME', KEYS[n + i], KEYS[i]) " +
+                    "redis.call('EXPIREAT', KEYS[i], ARGV[i]) " +
+                    "else redis.call('DEL', KEYS[i]) end " +
+                    "end " +
+                    "redis.call('DEL', KEYS[#KEYS]) " +
+                    "return 1", Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    /**
+     * 하루 버킷의 가게 족보 작성 수 증감하기. 30일이 지난 날짜는 무시한다.
+     */
+    public void increase(Long storeId, LocalDate day, long delta) {
+        increaseAll(Collections.singletonMap(day, Collections.singletonMap(storeId, delta)));
+    }
+
+    /**
+     * 여러 날짜, 여러 가게의 족보 작성 수를 스크립트 한 번으로 증감하기. 30일이 지난 날짜는 무시한다.
+     */
+    public void increaseAll(Map<LocalDate, Map<Long, Long>> deltasByDay) {
+        LocalDate firstDay = firstDayOfWindow();
+        List<String> keys = new ArrayList<>();
+        List<String> args = new ArrayList<>();
+        deltasByDay.forEach((day, deltas) -> {
+            if(day.isBefore(firstDay) || deltas.isEmpty())
+                return;
+
+            keys.add(dayKey(day));
+            args.add(String.valueOf(expireAt(day)));
+            args.add(String.valueOf(deltas.size()));
+            deltas.forEach((storeId, delta) -> {
+                args.add(String.valueOf(storeId));
+                args.add(String.valueOf(delta));
+            });
+        });
+        if(keys.isEmpty())
+            return;
+
+        keys.add(WINDOW_KEY);
+        redisTemplate.execute(INCREASE, keys, args.toArray());
+    }
+
+    /**
+     * 최근 30일 동안 족보가 가장 많이 작성된 가게 id와 작성 수. 많은 순서대로.
+     */
+    public LinkedHashMap<Long, Long> findTop(int k) {
+        List<String> keys = new ArrayList<>();
+        for(LocalDate day = firstDayOfWindow(); !day.isAfter(today()); day = day.plusDays(1)) {
+            keys.add(dayKey(day));
+        }
+        keys.add(WINDOW_KEY);
+
+        List<?> result = redisTemplate.execute(TOP, keys, String.valueOf(k), String.valueOf(WINDOW_EXPIRATION.toMillis()));
+
+        LinkedHashMap<Long, Long> top = new LinkedHashMap<>();
+        if(result != null) {
+            for(int i = 0; i + 1 < result.size(); i += 2) {
+                top.put(Long.valueOf(result.get(i).toString()), (long) Double.parseDouble(result.get(i + 1).toString()));
+            }
+        }
+        return top;
+    }
+
+    /**
+     * 족보 테이블에서 센 날짜별 가게 족보 작성 수로 30일 버킷 덮어쓰기.
+     * 별도의 키에 먼저 만들고 스크립트 한 번으로 바꾸기 때문에, 순위 조회가 만드는 중인 버킷을 합치는 일은 없다.
+     */
+    public void overwrite(Map<LocalDate, Map<Long, Long>> countsByDay) {
+        List<LocalDate> days = new ArrayList<>();
+        for(LocalDate day = firstDayOfWindow(); !day.isAfter(today()); day = day.plusDays(1)) {
+            days.add(day);
+        }
+
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for(LocalDate day : days) {
+                byte[] key = rebuildKey(day).getBytes(StandardCharsets.UTF_8);
+                connection.keyCommands().del(key);
+
+                Map<Long, Long> counts = countsByDay.getOrDefault(day, Collections.emptyMap());
+                for(Map.Entry<Long, Long> entry : counts.entrySet()) {
+                    connection.zSetCommands().zAdd(key, entry.getValue(), String.valueOf(entry.getKey()).getBytes(StandardCharsets.UTF_8));
+                }
+                if(!counts.isEmpty())
+                    connection.keyCommands().pExpire(key, REBUILD_EXPIRATION.toMillis());
+            }
+            return null;
+        });
+
+        List<String> keys = new ArrayList<>();
+        List<String> expireAts = new ArrayList<>();
+        days.forEach(day -> {
+            keys.add(dayKey(day));
+            expireAts.add(String.valueOf(expireAt(day)));
+        });
+        days.forEach(day -> keys.add(rebuildKey(day)));
+        keys.add(WINDOW_KEY);
+        redisTemplate.execute(SWAP, keys, expireAts.toArray());
+    }
+
+    /**
+     * 순위에 들어가는 첫 날. 오늘을 포함해서 30일.
+     */
+    public LocalDate firstDayOfWindow() {
+        return today().minusDays(WINDOW_DAYS - 1);
+    }
+
+    private LocalDate today() {
+        return LocalDate.now();
+    }
+
+    private String dayKey(LocalDate day) {
+        return DAY_KEY_PREFIX + day.format(DAY_FORMAT);
+    }
+
+    private String rebuildKey(LocalDate day) {
+        return REBUILD_KEY_PREFIX + day.format(DAY_FORMAT);
+    }
+
+    // 버킷이 순위에서 빠지는 날 0시에 만료된다.
+    private long expireAt(LocalDate day) {
+        return day.plusDays(WINDOW_DAYS).atStartOfDay(ZoneId.systemDefault()).toEpochSecond();
+    }
+}
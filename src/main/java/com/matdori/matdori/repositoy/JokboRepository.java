@@ -7,8 +7,12 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Repository;
 
 import javax.persistence.EntityManager;
+import java.time.LocalDate;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Repository
 @RequiredArgsConstructor
@@ -38,12 +42,93 @@ public class JokboRepository {
         em.remove(em.find(Jokbo.class, id));
     }
 
+    /**
+     * 여러 족보를 작성자와 함께 조회하기.
+     */
+    public List<Jokbo> findAllWithUser(List<Long> ids) {
+        return em.createQuery(
+                        "SELECT j FROM Jokbo j " +
+                                "JOIN FETCH j.user " +
+                                "WHERE j.id IN :ids", Jokbo.class)
+                .setParameter("ids", ids)
+                .getResultList();
+    }
+
+    /**
+     * 여러 족보 한 번에 삭제하기. 좋아요, 댓글, 이미지는 먼저 지워야 한다.
+     */
+    public void deleteAllByIds(List<Long> ids) {
+        em.createQuery(
+                        "DELETE FROM Jokbo j " +
+                                "WHERE j.id IN :ids")
+                .setParameter("ids", ids)
+                .executeUpdate();
+    }
+
+    /**
+     * 족보 좋아요 개수 증감하기.
+     */
+    public void increaseFavoriteCount(Long jokboId, int delta) {
+        em.createQuery(
+                        "UPDATE Jokbo j " +
+                                "SET j.favoriteCount = j.favoriteCount + :delta " +
+                                "WHERE j.id =: jokboId")
+                .setParameter("delta", delta)
+                .setParameter("jokboId", jokboId)
+                .executeUpdate();
+    }
+
+    /**
+     * 여러 족보의 좋아요 개수를 하나씩 줄이기.
+     */
+    public void decreaseFavoriteCounts(List<Long> jokboIds) {
+        if(jokboIds.isEmpty())
+            return;
+
+        em.createQuery(
+                        "UPDATE Jokbo j " +
+                                "SET j.favoriteCount = j.favoriteCount - 1 " +
+                                "WHERE j.id IN :jokboIds")
+                .setParameter("jokboIds", jokboIds)
+                .executeUpdate();
+    }
+
+    /**
+     * 족보 댓글 개수 증감하기.
+     */
+    public void increaseCommentCount(Long jokboId, int delta) {
+        em.createQuery(
+                        "UPDATE Jokbo j " +
+                                "SET j.commentCount = j.commentCount + :delta " +
+                                "WHERE j.id =: jokboId")
+                .setParameter("delta", delta)
+                .setParameter("jokboId", jokboId)
+                .executeUpdate();
+    }
+
+    /**
+     * 좋아요/댓글 개수를 실제 좋아요/삭제되지 않은 댓글 개수로 맞추기.
+     * 값이 다른 족보만 갱신한다.
+     */
+    public int syncCounts() {
+        return em.createNativeQuery(
+                        "UPDATE jokbo j " +
+                                "SET favorite_count = c.favorite_count, comment_count = c.comment_count " +
+                                "FROM (SELECT j2.jokbo_index, " +
+                                "(SELECT COUNT(*) FROM jokbo_favorite f WHERE f.jokbo_index = j2.jokbo_index) AS favorite_count, " +
+                                "(SELECT COUNT(*) FROM jokbo_comment jc WHERE jc.jokbo_index = j2.jokbo_index AND jc.is_deleted = false) AS comment_count " +
+                                "FROM jokbo j2) c " +
+                                "WHERE j.jokbo_index = c.jokbo_index " +
+                                "AND (j.favorite_count <> c.favorite_count OR j.comment_count <> c.comment_count)")
+                .executeUpdate();
+    }
+
     /**
      * 모든 족보의 개수 구하기.
      */
-    public int countAll() {
-        return em.createQuery("SELECT j FROM Jokbo j", Jokbo.class)
-                .getResultList().size();
+    public long countAll() {
+        return em.createQuery("SELECT COUNT(j) FROM Jokbo j", Long.class)
+                .getSingleResult();
     }
 
 
@@ -61,7 +146,6 @@ public class JokboRepository {
                         "SELECT j FROM Jokbo j " +
                                 "JOIN FETCH j.user u " +
                                 "LEFT JOIN j.jokboImgs " +
-                                "LEFT JOIN FETCH j.jokboComments c " +
                                 "WHERE u.id =: userId " +
                                 "ORDER BY j.id DESC", Jokbo.class)
                 .setParameter("userId", userId)
@@ -74,7 +158,6 @@ public class JokboRepository {
                         "SELECT j FROM Jokbo j " +
                                 "JOIN FETCH j.user u " +
                                 "LEFT JOIN j.jokboImgs " +
-                                "LEFT JOIN FETCH j.jokboComments c " +
                                 "WHERE u.id =: userId AND j.id < : cursor " +
                                 "ORDER BY j.id DESC", Jokbo.class)
                 .setParameter("userId", userId)
@@ -99,7 +182,7 @@ public class JokboRepository {
             return em.createQuery(
                             "SELECT j FROM Jokbo j " +
                                     "WHERE j.store.id =: storeId " +
-                                    "ORDER BY j.jokboFavorites.size DESC, j.id DESC ", Jokbo.class)
+                                    "ORDER BY j.favoriteCount DESC, j.id DESC ", Jokbo.class)
                     .setParameter("storeId", storeId)
                     .setMaxResults(15)
                     .getResultList();
@@ -131,8 +214,8 @@ public class JokboRepository {
         if(sortingType.equals(SortingType.MOST_FAVORITES)){
             return em.createQuery(
                             "SELECT j FROM Jokbo j " +
-                                    "WHERE j.store.id =: storeId AND j.jokboFavorites.size < :cursor OR (j.jokboFavorites.size = :cursor AND j.id < :jokboId) " +
-                                    "ORDER BY j.jokboFavorites.size DESC, j.id DESC ", Jokbo.class)
+                                    "WHERE j.store.id =: storeId AND (j.favoriteCount, j.id) < (:cursor, :jokboId) " +
+                                    "ORDER BY j.favoriteCount DESC, j.id DESC ", Jokbo.class)
                     .setParameter("storeId", storeId)
                     .setParameter("cursor",  cursor.intValue())
                     .setParameter("jokboId", jokboId)
@@ -154,11 +237,42 @@ public class JokboRepository {
     /**
      * 가게에 매핑된 모든 족보의 개수 구하기.
      */
-    public int countAllAtStore(Long storeId) {
-        return em.createQuery("SELECT j FROM Jokbo j " +
-                        "WHERE j.store.id =: storeId", Jokbo.class)
+    public long countAllAtStore(Long storeId) {
+        return em.createQuery("SELECT COUNT(j) FROM Jokbo j " +
+                        "WHERE j.store.id =: storeId", Long.class)
                 .setParameter("storeId", storeId)
-                .getResultList().size();
+                .getSingleResult();
+    }
+
+    /**
+     * 가게별 족보 개수 구하기. 족보가 없는 가게는 포함되지 않는다.
+     */
+    public Map<Long, Long> countAllGroupByStore() {
+        return em.createQuery("SELECT j.store.id, COUNT(j) FROM Jokbo j " +
+                        "GROUP BY j.store.id", Object[].class)
+                .getResultList().stream()
+                .collect(Collectors.toMap(row -> (Long) row[0], row -> (Long) row[1]));
+    }
+
+    /**
+     * since 이후에 작성된 족보를 날짜별, 가게별로 세기.
+     */
+    public Map<LocalDate, Map<Long, Long>> countGroupByDayAndStore(LocalDate since) {
+        List<Object[]> rows = em.createNativeQuery(
+                        "SELECT CAST(j.created_at AS date), j.store_index, COUNT(*) " +
+                                "FROM jokbo j " +
+                                "WHERE j.created_at >= :since " +
+                                "GROUP BY CAST(j.created_at AS date), j.store_index")
+                .setParameter("since", since.atStartOfDay())
+                .getResultList();
+
+        Map<LocalDate, Map<Long, Long>> counts = new HashMap<>();
+        for(Object[] row : rows) {
+            LocalDate day = ((java.sql.Date) row[0]).toLocalDate();
+            counts.computeIfAbsent(day, d -> new HashMap<>())
+                    .put(((Number) row[1]).longValue(), ((Number) row[2]).longValue());
+        }
+        return counts;
     }
 
     /**
@@ -168,7 +282,7 @@ public class JokboRepository {
         return em.createQuery(
                 "SELECT j FROM Jokbo j " +
                 "WHERE j.store.id =: storeId " +
-                "ORDER BY j.jokboFavorites.size DESC ", Jokbo.class)
+                "ORDER BY j.favoriteCount DESC ", Jokbo.class)
                 .setMaxResults(1)
                 .setParameter("storeId", storeId)
                 .getResultList()
@@ -0,0 +1,67 @@
+package com.matdori.matdori.repositoy;
+
+import com.matdori.matdori.domain.MailOutbox;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+public class MailOutboxRepository {
+
+    private final EntityManager em;
+
+    /**
+     * 보낼 메일 저장하기.
+     */
+    public void save(MailOutbox mailOutbox) {
+        em.persist(mailOutbox);
+    }
+
+    /**
+     * 보낼 차례가 된 메일을 잠그고 가져오기.
+     * 다른 서버가 잠근 행은 건너뛰기 때문에 여러 서버가 같은 메일을 두 번 보내지 않는다.
+     */
+    public List<MailOutbox> lockDispatchable(LocalDateTime now, int limit) {
+        return em.createNativeQuery(
+                "SELECT * " +
+                        "FROM mail_outbox " +
+                        "WHERE status = 'PENDING' " +
+                        "AND next_attempt_at <= :now " +
+                        "ORDER BY mail_outbox_index " +
+                        "LIMIT :limit " +
+                        "FOR UPDATE SKIP LOCKED", MailOutbox.class)
+                .setParameter("now", now)
+                .setParameter("limit", limit)
+                .getResultList();
+    }
+
+    /**
+     * 보냈거나 실패한 메일 중 cutoff 전에 만들어진 메일 삭제하기. 삭제한 개수를 반환.
+     */
+    public int deleteFinishedBefore(LocalDateTime cutoff) {
+        return em.createQuery(
+                "DELETE FROM MailOutbox m " +
+                        "WHERE m.status IN :statuses " +
+                        "AND m.createdAt < :cutoff")
+                .setParameter("statuses", Arrays.asList(MailOutbox.Status.SENT, MailOutbox.Status.FAILED))
+                .setParameter("cutoff", cutoff)
+                .executeUpdate();
+    }
+
+    /**
+     * 아직 보내지 않은 메일 개수 조회하기.
+     */
+    public long countPending() {
+        return em.createQuery(
+                "SELECT COUNT(m) " +
+                        "FROM MailOutbox m " +
+                        "WHERE m.status = :status", Long.class)
+                .setParameter("status", MailOutbox.Status.PENDING)
+                .getSingleResult();
+    }
+}
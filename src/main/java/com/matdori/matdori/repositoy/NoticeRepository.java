@@ -1,7 +1,9 @@
 package com.matdori.matdori.repositoy;
 
 import com.matdori.matdori.domain.Notice;
+import com.matdori.matdori.event.NoticeChangedEvent;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Repository;
 
 import javax.persistence.EntityManager;
@@ -13,12 +15,14 @@ import java.util.Optional;
 public class NoticeRepository {
 
     private final EntityManager em;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * 공지사항 저장하기.
      */
     public void save(Notice notice) {
         em.persist(notice);
+        eventPublisher.publishEvent(new NoticeChangedEvent());
     }
 
     /**
@@ -34,6 +38,7 @@ public class NoticeRepository {
      */
     public void delete(Long id) {
         em.remove(em.find(Notice.class, id));
+        eventPublisher.publishEvent(new NoticeChangedEvent());
     }
 
     /**
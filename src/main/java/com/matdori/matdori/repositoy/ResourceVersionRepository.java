@@ -0,0 +1,51 @@
+package com.matdori.matdori.repositoy;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collections;
+
+/**
+ * 자주 바뀌지 않는 리소스의 버전 번호를 Redis에 저장.
+ * 리소스가 바뀔 때마다 버전을 올리고, 응답의 ETag는 이 버전으로 만든다.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ResourceVersionRepository {
+
+    public static final String NOTICE = "notice";
+    public static final String TERMS = "terms";
+    public static final String CATALOG = "catalog";
+
+    private static final String KEY_PREFIX = "version:";
+
+    // 키가 없을 때 1부터 시작하면 Redis가 비워진 뒤 예전 버전 번호가 다시 나올 수 있어서
+    // 현재 시각(ms)으로 시작한다.
+    private static final RedisScript<Long> FIND = new DefaultRedisScript<>(
+            "redis.call('SET', KEYS[1], ARGV[1], 'NX') " +
+                    "return tonumber(redis.call('GET', KEYS[1]))", Long.class);
+
+    private static final RedisScript<Long> INCREASE = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 1 then return redis.call('INCR', KEYS[1]) end " +
+                    "redis.call('SET', KEYS[1], ARGV[1]) " +
+                    "return tonumber(ARGV[1])", Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    /**
+     * 리소스의 현재 버전 조회하기.
+     */
+    public long find(String resource) {
+        return redisTemplate.execute(FIND, Collections.singletonList(KEY_PREFIX + resource), String.valueOf(System.currentTimeMillis()));
+    }
+
+    /**
+     * 리소스의 버전 올리기.
+     */
+    public void increase(String resource) {
+        redisTemplate.execute(INCREASE, Collections.singletonList(KEY_PREFIX + resource), String.valueOf(System.currentTimeMillis()));
+    }
+}
@@ -0,0 +1,30 @@
+package com.matdori.matdori.repositoy;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+
+/**
+ * 여러 서버에서 도는 작업을 한 서버에서만 실행하기 위한 Redis 잠금.
+ *
+ * lock:{name}  잠금을 잡은 시각(ms). holdFor가 지나면 만료된다.
+ */
+@Repository
+@RequiredArgsConstructor
+public class SchedulerLockRepository {
+
+    private static final String KEY_PREFIX = "lock:";
+
+    private final StringRedisTemplate redisTemplate;
+
+    /**
+     * 잠금 잡기. 다른 서버가 holdFor 안에 이미 잡았으면 false.
+     * 작업이 끝나도 풀지 않고 만료되도록 두어서, 같은 주기에 다른 서버가 다시 실행하지 않게 한다.
+     */
+    public boolean tryLock(String name, Duration holdFor) {
+        return Boolean.TRUE.equals(redisTemplate.opsForValue()
+                .setIfAbsent(KEY_PREFIX + name, String.valueOf(System.currentTimeMillis()), holdFor));
+    }
+}
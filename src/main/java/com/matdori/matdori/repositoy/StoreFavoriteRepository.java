@@ -8,6 +8,8 @@ import org.springframework.stereotype.Repository;
 import javax.persistence.EntityManager;
 import java.util.List;
 
+import static com.matdori.matdori.repositoy.StoreRatingSummaryRepository.*;
+
 @Repository
 @RequiredArgsConstructor
 public class StoreFavoriteRepository {
@@ -28,11 +30,11 @@ public class StoreFavoriteRepository {
 
     public List<FavoriteStore> findAllFavoriteStore(Long userId) {
         return em.createQuery(
-                "SELECT new com.matdori.matdori.repositoy.Dto.FavoriteStore(f.id, s.id, s.jokbos.size," +
-                        "(SELECT (AVG(j.flavorRating) + AVG(j.cleanRating) + AVG(j.underPricedRating)) /3  FROM Jokbo j WHERE j.store.id = s.id)," +
+                "SELECT new com.matdori.matdori.repositoy.Dto.FavoriteStore(f.id, s.id, " + JOKBO_COUNT + ", " + TOTAL_RATING + "," +
                         " s.name, s.category, s.imgUrl) FROM User u " +
                         "JOIN u.storeFavorites f " +
                         "JOIN f.store s " +
+                        JOIN_RATING_SUMMARY +
                         "WHERE u.id =: id " +
                         "ORDER BY f.id DESC ", FavoriteStore.class)
                 .setParameter("id",userId)
@@ -42,11 +44,11 @@ public class StoreFavoriteRepository {
 
     public List<FavoriteStore> getFavoriteStoresDescendingById(Long userId, Long favoriteStoreId) {
         return em.createQuery(
-                        "SELECT new com.matdori.matdori.repositoy.Dto.FavoriteStore(f.id, s.id, s.jokbos.size," +
-                                "(SELECT (AVG(j.flavorRating) + AVG(j.cleanRating) + AVG(j.underPricedRating)) /3  FROM Jokbo j WHERE j.store.id = s.id)," +
+                        "SELECT new com.matdori.matdori.repositoy.Dto.FavoriteStore(f.id, s.id, " + JOKBO_COUNT + ", " + TOTAL_RATING + "," +
                                 " s.name, s.category, s.imgUrl) FROM User u " +
                                 "JOIN u.storeFavorites f " +
                                 "JOIN f.store s " +
+                                JOIN_RATING_SUMMARY +
                                 "WHERE u.id =: id AND f.id < :favoriteStoreId " +
                                 "ORDER BY f.id DESC ", FavoriteStore.class)
                 .setParameter("id",userId)
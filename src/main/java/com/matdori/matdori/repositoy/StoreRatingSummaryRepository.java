@@ -0,0 +1,188 @@
+package com.matdori.matdori.repositoy;
+
+import com.matdori.matdori.domain.Jokbo;
+import com.matdori.matdori.domain.RatingAxis;
+import com.matdori.matdori.domain.StoreRatingSummary;
+import com.matdori.matdori.repositoy.Dto.MatdoriTop3;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+@RequiredArgsConstructor
+public class StoreRatingSummaryRepository {
+
+    private final EntityManager em;
+
+    // 다른 리포지토리의 JPQL에서 별칭 r로 가게 별점 집계를 조인해서 평균을 구할 때 사용하는 식. 족보가 없는 가게는 NULL.
+    static final String FLAVOR_RATING = "(1.0 * r.flavorRatingSum / NULLIF(r.jokboCount, 0))";
+    static final String UNDER_PRICED_RATING = "(1.0 * r.underPricedRatingSum / NULLIF(r.jokboCount, 0))";
+    static final String CLEAN_RATING = "(1.0 * r.cleanRatingSum / NULLIF(r.jokboCount, 0))";
+    static final String TOTAL_RATING = "(1.0 * (r.flavorRatingSum + r.underPricedRatingSum + r.cleanRatingSum) / NULLIF(3 * r.jokboCount, 0))";
+    static final String JOKBO_COUNT = "COALESCE(r.jokboCount, 0)";
+    static final String JOIN_RATING_SUMMARY = "LEFT JOIN StoreRatingSummary r ON r.storeId = s.id ";
+
+    // UPDATE 문에서 새 합계 / (PRIOR_WEIGHT + 새 개수)로 베이지안 점수를 계산하는 식.
+    // 별점과 개수 파라미터는 더할 때 양수, 뺄 때 음수로 넘긴다. 별점은 합계 컬럼과 같은 Long, 개수는 jokboCount와 같은 Integer로 바인딩한다.
+    // Hibernate는 파라미터 타입을 같이 계산되는 컬럼 타입으로 검사하기 때문에, 사전 값은 파라미터 대신 리터럴로 넣는다.
+    private static final String PRIOR_SUM = String.valueOf(StoreRatingSummary.PRIOR_WEIGHT * StoreRatingSummary.PRIOR_MEAN);
+    private static final String PRIOR_WEIGHT = String.valueOf(StoreRatingSummary.PRIOR_WEIGHT);
+    private static final String SCORES =
+            "r.flavorScore = (" + PRIOR_SUM + " + r.flavorRatingSum + :flavorRating) / (" + PRIOR_WEIGHT + " + r.jokboCount + :count), " +
+            "r.underPricedScore = (" + PRIOR_SUM + " + r.underPricedRatingSum + :underPricedRating) / (" + PRIOR_WEIGHT + " + r.jokboCount + :count), " +
+            "r.cleanScore = (" + PRIOR_SUM + " + r.cleanRatingSum + :cleanRating) / (" + PRIOR_WEIGHT + " + r.jokboCount + :count), " +
+            "r.totalScore = (3 * " + PRIOR_SUM + " + r.flavorRatingSum + r.underPricedRatingSum + r.cleanRatingSum + :ratingSum) / (3 * (" + PRIOR_WEIGHT + " + r.jokboCount + :count)) ";
+
+    /**
+     * 가게 별점 집계 저장하기.
+     */
+    public void save(StoreRatingSummary storeRatingSummary) {
+        em.persist(storeRatingSummary);
+    }
+
+    /**
+     * 가게 id로 별점 집계 조회하기.
+     */
+    public Optional<StoreRatingSummary> findOne(Long storeId) {
+        return Optional.ofNullable(em.find(StoreRatingSummary.class, storeId));
+    }
+
+    /**
+     * 족보가 작성됐을 때 가게 별점 집계에 더하기.
+     * UPDATE 한 줄로 처리하기 때문에 동시에 족보가 작성되어도 합계가 어긋나지 않는다.
+     * SET 절의 오른쪽은 갱신 전 값을 읽기 때문에 평균은 새 합계/개수로 직접 계산한다.
+     */
+    public void increase(Jokbo jokbo) {
+        int updated = em.createQuery(
+                        "UPDATE StoreRatingSummary r " +
+                                "SET r.flavorRatingSum = r.flavorRatingSum + :flavorRating, " +
+                                "r.underPricedRatingSum = r.underPricedRatingSum + :underPricedRating, " +
+                                "r.cleanRatingSum = r.cleanRatingSum + :cleanRating, " +
+                                "r.jokboCount = r.jokboCount + 1, " +
+                                "r.ratingScore = (1.0 * (r.flavorRatingSum + r.underPricedRatingSum + r.cleanRatingSum + :ratingSum)) / (3 * (r.jokboCount + 1)), " +
+                                SCORES +
+                                "WHERE r.storeId =: storeId")
+                .setParameter("count", 1)
+                .setParameter("flavorRating", (long) jokbo.getFlavorRating())
+                .setParameter("underPricedRating", (long) jokbo.getUnderPricedRating())
+                .setParameter("cleanRating", (long) jokbo.getCleanRating())
+                .setParameter("ratingSum", ratingSum(jokbo))
+                .setParameter("storeId", jokbo.getStore().getId())
+                .executeUpdate();
+
+        // 아직 집계가 없는 가게인 경우 새로 만들기.
+        if(updated == 0) {
+            StoreRatingSummary storeRatingSummary = new StoreRatingSummary(jokbo.getStore());
+            storeRatingSummary.setFlavorRatingSum(jokbo.getFlavorRating());
+            storeRatingSummary.setUnderPricedRatingSum(jokbo.getUnderPricedRating());
+            storeRatingSummary.setCleanRatingSum(jokbo.getCleanRating());
+            storeRatingSummary.setJokboCount(1);
+            storeRatingSummary.setRatingScore(ratingSum(jokbo) / 3.0);
+            storeRatingSummary.updateScores();
+            em.persist(storeRatingSummary);
+        }
+    }
+
+    /**
+     * 족보들이 삭제됐을 때 가게 별점 집계에서 빼기.
+     * 같은 가게의 족보들은 별점 합계와 개수를 합쳐서 UPDATE 한 번으로 뺀다.
+     */
+    public void decrease(Long storeId, int count, long flavorRatingSum, long underPricedRatingSum, long cleanRatingSum) {
+        long ratingSum = flavorRatingSum + underPricedRatingSum + cleanRatingSum;
+        em.createQuery(
+                        "UPDATE StoreRatingSummary r " +
+                                "SET r.flavorRatingSum = r.flavorRatingSum + :flavorRating, " +
+                                "r.underPricedRatingSum = r.underPricedRatingSum + :underPricedRating, " +
+                                "r.cleanRatingSum = r.cleanRatingSum + :cleanRating, " +
+                                "r.jokboCount = r.jokboCount + :count, " +
+                                "r.ratingScore = COALESCE((1.0 * (r.flavorRatingSum + r.underPricedRatingSum + r.cleanRatingSum + :ratingSum)) / NULLIF(3 * (r.jokboCount + :count), 0), 0.0), " +
+                                SCORES +
+                                "WHERE r.storeId =: storeId AND r.jokboCount >= :deleted")
+                .setParameter("count", -count)
+                .setParameter("deleted", count)
+                .setParameter("flavorRating", -flavorRatingSum)
+                .setParameter("underPricedRating", -underPricedRatingSum)
+                .setParameter("cleanRating", -cleanRatingSum)
+                .setParameter("ratingSum", -ratingSum)
+                .setParameter("storeId", storeId)
+                .executeUpdate();
+    }
+
+    private long ratingSum(Jokbo jokbo) {
+        return (long) jokbo.getFlavorRating() + jokbo.getUnderPricedRating() + jokbo.getCleanRating();
+    }
+
+    /**
+     * 저장된 가게 별점 집계 개수 구하기.
+     */
+    public Long countAll() {
+        return em.createQuery("SELECT COUNT(r) FROM StoreRatingSummary r", Long.class)
+                .getSingleResult();
+    }
+
+    /**
+     * 카테고리가 채워지지 않은 가게 별점 집계 개수 구하기.
+     * 카테고리 컬럼이 추가되기 전에 만들어진 집계가 남아 있는지 확인할 때 사용한다.
+     */
+    public Long countWithoutCategory() {
+        return em.createQuery("SELECT COUNT(r) FROM StoreRatingSummary r WHERE r.category IS NULL", Long.class)
+                .getSingleResult();
+    }
+
+    /**
+     * 베이지안 점수가 계산되지 않은 가게 별점 집계 개수 구하기.
+     * 점수 컬럼은 0으로 추가되지만, 계산된 점수는 항상 0보다 크다.
+     */
+    public Long countWithoutScore() {
+        return em.createQuery("SELECT COUNT(r) FROM StoreRatingSummary r WHERE r.totalScore = 0", Long.class)
+                .getSingleResult();
+    }
+
+    /**
+     * 별점 항목별 베이지안 점수가 높은 가게 조회하기. 족보가 없는 가게는 제외한다.
+     * (점수, 가게 id) 인덱스를 역순으로 읽기 때문에 가게 수와 관계없이 상위 limit개만 읽는다.
+     */
+    public List<MatdoriTop3> findTopByScore(RatingAxis axis, int limit) {
+        return em.createQuery(
+                        "SELECT new com.matdori.matdori.repositoy.Dto.MatdoriTop3" +
+                                "(s.id, s.name, " +
+                                FLAVOR_RATING + ", " + CLEAN_RATING + ", " + UNDER_PRICED_RATING + ", s.imgUrl) " +
+                                "FROM StoreRatingSummary r " +
+                                "JOIN Store s ON s.id = r.storeId " +
+                                "WHERE r.jokboCount > 0 " +
+                                "ORDER BY r." + axis.getScoreField() + " DESC, r.storeId DESC", MatdoriTop3.class)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /**
+     * 족보 테이블로부터 모든 가게의 별점 집계를 다시 만들기.
+     * 족보가 하나도 없는 가게도 0으로 채워서 가게마다 집계가 항상 하나씩 존재하도록 한다.
+     */
+    public void rebuildAll() {
+        em.createNativeQuery("DELETE FROM store_rating_summary").executeUpdate();
+        em.createNativeQuery(
+                        "INSERT INTO store_rating_summary " +
+                                "(store_index, category, flavor_rating_sum, under_priced_rating_sum, clean_rating_sum, jokbo_count, rating_score, " +
+                                "total_score, flavor_score, under_priced_score, clean_score) " +
+                                "SELECT s.store_index, s.category, " +
+                                "COALESCE(SUM(j.flavor_rating), 0), " +
+                                "COALESCE(SUM(j.under_priced_rating), 0), " +
+                                "COALESCE(SUM(j.clean_rating), 0), " +
+                                "COUNT(j.jokbo_index), " +
+                                "COALESCE(1.0 * SUM(j.flavor_rating + j.under_priced_rating + j.clean_rating) / NULLIF(3 * COUNT(j.jokbo_index), 0), 0), " +
+                                "(3 * :priorSum + COALESCE(SUM(j.flavor_rating + j.under_priced_rating + j.clean_rating), 0)) / (3 * (:priorWeight + COUNT(j.jokbo_index))), " +
+                                "(:priorSum + COALESCE(SUM(j.flavor_rating), 0)) / (:priorWeight + COUNT(j.jokbo_index)), " +
+                                "(:priorSum + COALESCE(SUM(j.under_priced_rating), 0)) / (:priorWeight + COUNT(j.jokbo_index)), " +
+                                "(:priorSum + COALESCE(SUM(j.clean_rating), 0)) / (:priorWeight + COUNT(j.jokbo_index)) " +
+                                "FROM store s " +
+                                "LEFT JOIN jokbo j ON j.store_index = s.store_index " +
+                                "GROUP BY s.store_index, s.category")
+                .setParameter("priorSum", StoreRatingSummary.PRIOR_WEIGHT * StoreRatingSummary.PRIOR_MEAN)
+                .setParameter("priorWeight", StoreRatingSummary.PRIOR_WEIGHT)
+                .executeUpdate();
+    }
+}
@@ -9,15 +9,17 @@ import org.springframework.transaction.annotation.Transactional;
 import javax.persistence.EntityManager;
 import javax.persistence.Query;
 import javax.persistence.TypedQuery;
-import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
 
+import static com.matdori.matdori.repositoy.StoreRatingSummaryRepository.*;
+
 @Repository
 @RequiredArgsConstructor
 public class StoreRepository {
 
     private final EntityManager em;
+
     public Store findOne(Long id) { return em.find(Store.class, id);}
 
     public List<Store> findAll(){
@@ -25,28 +27,17 @@ public class StoreRepository {
                 .getResultList();
     }
 
-    public List<Category> findAllCategoryWithMenu(Long id){
-        return em.createQuery(
-                "SELECT c FROM Category c " +
-                        "JOIN FETCH c.store s " +
-                        "WHERE s.id =: id", Category.class
-        ).setParameter("id", id).getResultList();
-    }
-
     /**
-     * 해당 학과의 족보가 가장 많은 가게 리스트 구하기.
+     * 가게의 카테고리와 메뉴를 한 번에 조회하기.
      */
-    public List<Store> getStoreListByDepartment(Department department) {
-
+    public List<MenuRow> findMenuRows(Long storeId){
         return em.createQuery(
-                "SELECT s FROM Store s " +
-                        "JOIN Jokbo j ON j.store.id = s.id " +
-                        "WHERE j.user.department =: department " +
-                        "GROUP BY s.id " +
-                        "ORDER BY COUNT(j.id) DESC ", Store.class)
-                .setParameter("department", department)
-                .setMaxResults(10)
-                .getResultList();
+                "SELECT new com.matdori.matdori.repositoy.Dto.MenuRow(c.id, c.name, m.name, m.price, m.imgUrl) " +
+                        "FROM Category c " +
+                        "LEFT JOIN c.menus m " +
+                        "WHERE c.store.id = :storeId " +
+                        "ORDER BY c.id, m.id", MenuRow.class
+        ).setParameter("storeId", storeId).getResultList();
     }
 
     /**
@@ -54,63 +45,82 @@ public class StoreRepository {
      */
     public Double getTotalRating(Store store) {
         return em.createQuery(
-                "SELECT AVG((j.flavorRating + j.underPricedRating + j.cleanRating)/3) " +
-                        "FROM Jokbo j " +
-                        "WHERE j.store =: store ", Double.class)
-                .setParameter("store", store)
-                .getSingleResult();
+                "SELECT " + TOTAL_RATING + " " +
+                        "FROM StoreRatingSummary r " +
+                        "WHERE r.storeId =: storeId ", Double.class)
+                .setParameter("storeId", store.getId())
+                .getResultList().stream().findAny().orElse(null);
     }
 
     public Optional<com.matdori.matdori.repositoy.Dto.StoreInformationHeader> readStoreInformationHeader(Long storeId){
         return em.createQuery(
                         "SELECT new com.matdori.matdori.repositoy.Dto.StoreInformationHeader(s.name, s.category, " +
-                                "AVG(j.flavorRating) , AVG(j.cleanRating) ,AVG(j.underPricedRating), s.imgUrl) " +
+                                FLAVOR_RATING + ", " + UNDER_PRICED_RATING + ", " + CLEAN_RATING + ", s.imgUrl) " +
                                 "FROM Store s " +
-                                "LEFT JOIN s.jokbos j " +
-                                "GROUP BY s.name, s.id, s.imgUrl " +
-                                "HAVING s.id =:storeId", com.matdori.matdori.repositoy.Dto.StoreInformationHeader.class)
+                                JOIN_RATING_SUMMARY +
+                                "WHERE s.id =:storeId", com.matdori.matdori.repositoy.Dto.StoreInformationHeader.class)
                 .setParameter("storeId", storeId)
                 .getResultList().stream().findAny();
     }
 
     /**
-     * 맛도리 픽 가게 리스트 조회하기.
+     * id로 가게 리스트 조회하기. 결과는 storeIds 순서대로.
      */
-    public List<Store> getMatdoriPick() {
+    public List<Store> findAllByIds(List<Long> storeIds) {
+        if(storeIds.isEmpty())
+            return new ArrayList<>();
 
-        return em.createQuery(
+        List<Store> stores = em.createQuery(
                 "SELECT s FROM Store s " +
-                        "ORDER BY RANDOM()", Store.class)
-                .setMaxResults(3)
+                        "WHERE s.id IN :storeIds", Store.class)
+                .setParameter("storeIds", storeIds)
+                .getResultList();
+        stores.sort(Comparator.comparingInt(store -> storeIds.indexOf(store.getId())));
+        return stores;
+    }
+
+    /**
+     * 모든 가게의 id와 카테고리 조회하기. 추천 인덱스를 만들 때 사용.
+     */
+    public List<Object[]> findAllIdsAndCategories() {
+        return em.createQuery(
+                "SELECT s.id, s.category " +
+                        "FROM Store s", Object[].class)
                 .getResultList();
     }
 
     /**
-     * 족보 부자 가게 리스트 조회하기
+     * 주어진 카테고리를 제외한 가게들의 메뉴 id 조회하기. 추천 인덱스를 만들 때 사용.
      */
-    public List<JokboRichStore> getJokboRichStores() {
-        return em.createQuery("SELECT new com.matdori.matdori.repositoy.Dto.JokboRichStore(s.id, s.name, s.imgUrl, s.jokbos.size) " +
-                        "FROM Jokbo j " +
-                        "JOIN j.store s ON j.createdAt BETWEEN :startTime and : endTime " +
-                        "GROUP BY s.id, s.name, s.imgUrl " +
-                        "ORDER BY COUNT(j) DESC ", JokboRichStore.class)
-                .setParameter("startTime", LocalDateTime.now().minusDays(30))
-                .setParameter("endTime", LocalDateTime.now())
-                .setMaxResults(3)
+    public List<Long> findMenuIdsExceptCategories(List<StoreCategory> categories) {
+        return em.createQuery(
+                "SELECT m.id " +
+                        "FROM Menu m " +
+                        "JOIN m.category c " +
+                        "JOIN c.store s " +
+                        "WHERE s.category NOT IN :categories", Long.class)
+                .setParameter("categories", categories)
                 .getResultList();
     }
 
+    // 카테고리별 가게 목록은 가게 별점 집계에서 정렬/커서 조건을 처리하고 가게는 id로만 조인한다.
+    private static final String STORE_LIST_BY_CATEGORY =
+            "SELECT new com.matdori.matdori.repositoy.Dto.StoreListByCategory(s.id, s.name, s.category, r.ratingScore, s.imgUrl, r.jokboCount) " +
+                    "FROM StoreRatingSummary r " +
+                    "JOIN Store s ON s.id = r.storeId " +
+                    "WHERE r.category =:category ";
+
+    /**
+     * 카테고리별 가게 목록의 다음 페이지 조회하기.
+     * (정렬 값, 가게 id) 행 비교를 커서 조건으로 사용해서 정렬 기준별 인덱스를 커서 위치부터 그대로 읽는다.
+     */
     public List<com.matdori.matdori.repositoy.Dto.StoreListByCategory> findByCategory(StoreCategory category, Double cursor, SortingType sortingType, Long storeIndex){
 
         if(sortingType.equals(SortingType.MOST_JOKBOS)){
             return em.createQuery(
-                            "SELECT new com.matdori.matdori.repositoy.Dto.StoreListByCategory(s.id, s.name, s.category, " +
-                                    "AVG(j.flavorRating) , AVG(j.cleanRating) ,AVG(j.underPricedRating), s.imgUrl, s.jokbos.size) " +
-                                    "FROM Store s " +
-                                    "LEFT JOIN s.jokbos j " +
-                                    "WHERE s.category =:category AND (s.jokbos.size < :cursor OR (s.jokbos.size = :cursor AND s.id < : storeIndex)) " +
-                                    "GROUP BY s.name,s.category, s.id, s.imgUrl " +
-                                    "ORDER BY s.jokbos.size DESC, s.id DESC ", StoreListByCategory.class)
+                            STORE_LIST_BY_CATEGORY +
+                                    "AND (r.jokboCount, r.storeId) < (:cursor, :storeIndex) " +
+                                    "ORDER BY r.jokboCount DESC, r.storeId DESC ", StoreListByCategory.class)
                     .setParameter("category" , category)
                     .setParameter("cursor", cursor.intValue())
                     .setParameter("storeIndex", storeIndex)
@@ -120,15 +130,9 @@ public class StoreRepository {
 
         if(sortingType.equals(SortingType.HIGHEST_RATING)){
             return em.createQuery(
-                            "SELECT new com.matdori.matdori.repositoy.Dto.StoreListByCategory(s.id, s.name, s.category, " +
-                                    "AVG(j.flavorRating) , AVG(j.cleanRating) ,AVG(j.underPricedRating), s.imgUrl, s.jokbos.size) " +
-                                    "FROM Store s " +
-                                    "LEFT JOIN s.jokbos j " +
-                                    "WHERE s.category =:category " +
-                                    "GROUP BY s.name,s.category, s.id, s.imgUrl " +
-                                    "HAVING COALESCE((AVG(j.flavorRating) + AVG(j.cleanRating) + AVG(j.underPricedRating))/3, 0) < :cursor OR " +
-                                    "( COALESCE((AVG(j.flavorRating) + AVG(j.cleanRating) + AVG(j.underPricedRating))/3,0) = :cursor AND s.id < : storeIndex) " +
-                                    "ORDER BY AVG(j.flavorRating)+AVG(j.cleanRating)+AVG(j.underPricedRating) DESC, s.id DESC ", StoreListByCategory.class)
+                            STORE_LIST_BY_CATEGORY +
+                                    "AND (r.ratingScore, r.storeId) < (:cursor, :storeIndex) " +
+                                    "ORDER BY r.ratingScore DESC, r.storeId DESC ", StoreListByCategory.class)
                     .setParameter("category" , category)
                     .setParameter("cursor", cursor)
                     .setParameter("storeIndex", storeIndex)
@@ -137,13 +141,9 @@ public class StoreRepository {
         }
 
         return em.createQuery(
-                        "SELECT new com.matdori.matdori.repositoy.Dto.StoreListByCategory(s.id, s.name, s.category, " +
-                                "AVG(j.flavorRating) , AVG(j.cleanRating) ,AVG(j.underPricedRating), s.imgUrl, s.jokbos.size) " +
-                                "FROM Store s " +
-                                "LEFT JOIN s.jokbos j " +
-                                "WHERE s.category =:category AND s.id < :storeIndex " +
-                                "GROUP BY s.name,s.category, s.id, s.imgUrl " +
-                                "ORDER BY s.id DESC ", StoreListByCategory.class)
+                        STORE_LIST_BY_CATEGORY +
+                                "AND r.storeId < :storeIndex " +
+                                "ORDER BY r.storeId DESC ", StoreListByCategory.class)
                 .setParameter("category" , category)
                 .setParameter("storeIndex", storeIndex)
                 .setMaxResults(15)
@@ -154,13 +154,8 @@ public class StoreRepository {
 
         if(sortingType.equals(SortingType.HIGHEST_RATING)){
             return em.createQuery(
-                            "SELECT new com.matdori.matdori.repositoy.Dto.StoreListByCategory(s.id, s.name, s.category, " +
-                                    "AVG(j.flavorRating) , AVG(j.cleanRating) ,AVG(j.underPricedRating), s.imgUrl, s.jokbos.size) " +
-                                    "FROM Store s " +
-                                    "LEFT JOIN s.jokbos j " +
-                                    "WHERE s.category =:category " +
-                                    "GROUP BY s.name,s.category, s.id, s.imgUrl " +
-                                    "ORDER BY AVG(j.flavorRating) + AVG(j.cleanRating) + AVG(j.underPricedRating) DESC, s.id DESC NULLS LAST ", StoreListByCategory.class)
+                            STORE_LIST_BY_CATEGORY +
+                                    "ORDER BY r.ratingScore DESC, r.storeId DESC ", StoreListByCategory.class)
                     .setParameter("category" , category)
                     .setMaxResults(15)
                     .getResultList();
@@ -168,13 +163,8 @@ public class StoreRepository {
 
         if(sortingType.equals(SortingType.MOST_JOKBOS)){
             return em.createQuery(
-                            "SELECT new com.matdori.matdori.repositoy.Dto.StoreListByCategory(s.id, s.name, s.category, " +
-                                    "AVG(j.flavorRating) , AVG(j.cleanRating) ,AVG(j.underPricedRating), s.imgUrl, s.jokbos.size) " +
-                                    "FROM Store s " +
-                                    "LEFT JOIN s.jokbos j " +
-                                    "WHERE s.category =:category " +
-                                    "GROUP BY s.name,s.category, s.id, s.imgUrl " +
-                                    "ORDER BY s.jokbos.size DESC, s.id DESC NULLS LAST ", StoreListByCategory.class)
+                            STORE_LIST_BY_CATEGORY +
+                                    "ORDER BY r.jokboCount DESC, r.storeId DESC ", StoreListByCategory.class)
                     .setParameter("category" , category)
                     .setMaxResults(15)
                     .getResultList();
@@ -182,13 +172,8 @@ public class StoreRepository {
 
         //if(sortingType.equals(SortingType.LASTEST))
         return em.createQuery(
-                        "SELECT new com.matdori.matdori.repositoy.Dto.StoreListByCategory(s.id, s.name, s.category, " +
-                                "AVG(j.flavorRating) , AVG(j.cleanRating) ,AVG(j.underPricedRating), s.imgUrl, s.jokbos.size) " +
-                                "FROM Store s " +
-                                "LEFT JOIN s.jokbos j " +
-                                "WHERE s.category =:category " +
-                                "GROUP BY s.name,s.category, s.id, s.imgUrl " +
-                                "ORDER BY s.id DESC ", StoreListByCategory.class)
+                        STORE_LIST_BY_CATEGORY +
+                                "ORDER BY r.storeId DESC ", StoreListByCategory.class)
                 .setParameter("category" , category)
                 .setMaxResults(15)
                 .getResultList();
@@ -206,13 +191,14 @@ public class StoreRepository {
     public com.matdori.matdori.repositoy.Dto.StoreRatings getAllRatings(Store store) {
         return em.createQuery(
                 "SELECT new com.matdori.matdori.repositoy.Dto.StoreRatings(" +
-                        "AVG(j.flavorRating), " +
-                        "AVG(j.underPricedRating), " +
-                        "AVG(j.cleanRating)) " +
-                        "FROM Jokbo j " +
-                        "WHERE j.store =: store ", StoreRatings.class)
-                .setParameter("store", store)
-                .getSingleResult();
+                        FLAVOR_RATING + ", " +
+                        UNDER_PRICED_RATING + ", " +
+                        CLEAN_RATING + ") " +
+                        "FROM StoreRatingSummary r " +
+                        "WHERE r.storeId =: storeId ", StoreRatings.class)
+                .setParameter("storeId", store.getId())
+                .getResultList().stream().findAny()
+                .orElseGet(() -> new StoreRatings(null, null, null));
     }
 
     public Long countStoresByCategory(StoreCategory storeCategory) {
@@ -224,113 +210,47 @@ public class StoreRepository {
                 .getSingleResult();
     }
 
-    public List<RecommendedStore> getRecommendedStore(){
-        return em.createQuery(
-                        "SELECT new com.matdori.matdori.repositoy.Dto.RecommendedStore(s.id, s.name, s.imgUrl, AVG(j.flavorRating), AVG(j.underPricedRating),AVG(j.cleanRating)) " +
-                                "FROM Store s LEFT JOIN s.jokbos j " +
-                                "WHERE s.category NOT IN :categories " +
-                                "GROUP BY s.id, s.name, s.imgUrl " +
-                                "ORDER BY RANDOM()", RecommendedStore.class)
-                .setParameter("categories", Arrays.asList(StoreCategory.ETC, StoreCategory.DESSERT_COFFEE, StoreCategory.MEAL_KIT, StoreCategory.PUB))
-                .setMaxResults(3)
-                .getResultList();
-    }
-
-    public List<RecommendedMenu> getRecommendedMenu() {
-        // 한 번에 가져오도록 쿼리를 날리면 불필요하게 join이 많이 돼서 쿼리를 쪼갰음.
-
-        // 첫 번째 쿼리: 가게와 메뉴를 가져오는 쿼리
-        TypedQuery<Object[]> menuQuery = em.createQuery(
-                        "SELECT s.id, s.name, m.name, s.imgUrl, m.category.id " +
-                                "FROM Store s " +
-                                "JOIN Category c ON c.store.id = s.id " +
-                                "JOIN Menu m ON c.id = m.category.id " +
-                                "WHERE s.category NOT IN :categories " +
-                                "ORDER BY RANDOM()",
-                        Object[].class)
-                .setParameter("categories", Arrays.asList(StoreCategory.ETC, StoreCategory.DESSERT_COFFEE, StoreCategory.MEAL_KIT, StoreCategory.PUB))
-                .setMaxResults(3);
-
-        // 첫 번째 쿼리 실행
-        List<Object[]> menuResults = menuQuery.getResultList();
+    /**
+     * 추천 가게 조회하기. 결과는 storeIds 순서대로.
+     */
+    public List<RecommendedStore> getRecommendedStore(List<Long> storeIds){
+        if(storeIds.isEmpty())
+            return new ArrayList<>();
 
-        // 두 번째 쿼리: 족보의 평균값을 가져오는 쿼리
-        TypedQuery<Object[]> jokboQuery = em.createQuery(
-                        "SELECT s.id, AVG(j.flavorRating), AVG(j.underPricedRating), AVG(j.cleanRating) " +
+        List<RecommendedStore> stores = em.createQuery(
+                        "SELECT new com.matdori.matdori.repositoy.Dto.RecommendedStore(s.id, s.name, s.imgUrl, " +
+                                FLAVOR_RATING + ", " + UNDER_PRICED_RATING + ", " + CLEAN_RATING + ") " +
                                 "FROM Store s " +
-                                "LEFT JOIN s.jokbos j " +
-                                "WHERE s.id IN :storeIds " +
-                                "GROUP BY s.id",
-                        Object[].class)
-                .setParameter("storeIds", menuResults.stream()
-                        .map(data -> (Long) data[0])
-                        .collect(Collectors.toList()));
-
-        // 두 번째 쿼리 실행
-        List<Object[]> jokboResults = jokboQuery.getResultList();
-
-        // 결과를 합쳐서 RecommendedMenu 리스트 생성
-        List<RecommendedMenu> recommendedMenus = new ArrayList<>();
-        for (int i = 0; i < menuResults.size(); i++) {
-            Object[] menuData = menuResults.get(i);
-            Object[] jokboData = jokboResults.get(i);
-
-            RecommendedMenu recommendedMenu = new RecommendedMenu(
-                    (Long) menuData[0],
-                    (String) menuData[1],
-                    (String) menuData[2],
-                    (String) menuData[3],
-                    (Double) jokboData[1],
-                    (Double) jokboData[2],
-                    (Double) jokboData[3]
-            );
-
-            recommendedMenus.add(recommendedMenu);
-        }
-
-        return recommendedMenus;
-
+                                JOIN_RATING_SUMMARY +
+                                "WHERE s.id IN :storeIds", RecommendedStore.class)
+                .setParameter("storeIds", storeIds)
+                .getResultList();
+        stores.sort(Comparator.comparingInt(store -> storeIds.indexOf(store.getStoreId())));
+        return stores;
     }
 
-    /***
-     * private Long storeIndex;
-     *     private String name;
-     *     private Double totalRating;
-     *     private Double flavorRating;
-     *     private Double cleanRating;
-     *     private Double underPricedRating;
-     *     private String imgUrl;
-     
+    /**
+     * 추천 메뉴 조회하기. 메뉴와 가게, 가게 별점 집계를 id로 한 번에 조인한다.
      */
-
-    public List<MatdoriTop3> getMatdoriTop3(String order){
-        // order를 enum으로 바꾸는 작업 필요
-        // 진짜 개별로군..
-        String orderByClause = "ORDER BY (AVG(j.flavorRating) + AVG(j.cleanRating) + AVG(j.underPricedRating)) / 3 DESC";
-
-        switch (order){
-            case "음식 맛" :
-                orderByClause = "ORDER BY AVG(j.flavorRating) DESC";
-                break;
-            case "가성비" :
-                orderByClause = "ORDER BY AVG(j.underPricedRating) DESC";
-                break;
-            case "청결" :
-                orderByClause = "ORDER BY AVG(j.cleanRating) DESC";
-        }
+    public List<RecommendedMenu> getRecommendedMenu(List<Long> menuIds) {
+        if(menuIds.isEmpty())
+            return new ArrayList<>();
 
         return em.createQuery(
-                "SELECT new com.matdori.matdori.repositoy.Dto.MatdoriTop3" +
-                        "(s.id, s.name, " +
-                        "AVG(j.flavorRating), AVG(j.cleanRating), AVG(j.underPricedRating), s.imgUrl) " +
-                        "FROM Store s LEFT JOIN s.jokbos j " +
-                        "GROUP BY s.id, s.name, s.imgUrl " +
-                        orderByClause + " NULLS LAST ", MatdoriTop3.class
-        ).setMaxResults(3)
+                        "SELECT new com.matdori.matdori.repositoy.Dto.RecommendedMenu(s.id, s.name, m.name, s.imgUrl, " +
+                                FLAVOR_RATING + ", " + UNDER_PRICED_RATING + ", " + CLEAN_RATING + ") " +
+                                "FROM Menu m " +
+                                "JOIN m.category c " +
+                                "JOIN c.store s " +
+                                JOIN_RATING_SUMMARY +
+                                "WHERE m.id IN :menuIds", RecommendedMenu.class)
+                .setParameter("menuIds", menuIds)
                 .getResultList();
     }
 
     public void save(Store store) {
         em.persist(store);
+        // 가게마다 별점 집계가 하나씩 존재하도록 비어 있는 집계를 같이 만든다.
+        em.persist(new StoreRatingSummary(store));
     }
 }
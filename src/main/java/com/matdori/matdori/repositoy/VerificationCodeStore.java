@@ -0,0 +1,131 @@
+package com.matdori.matdori.repositoy;
+
+import com.matdori.matdori.domain.EmailAuthorizationType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * Redis에 저장하는 이메일 인증 상태.
+ * 로그인 세션과 키 공간을 나누고, 인증 단계마다 몇 분짜리 만료 시간만 둔다.
+ *
+ * verification:code:{인증번호}  이메일              인증번호 -> 이메일. 5분
+ * verification:email:{이메일}   hash {code, type, expiresAt, sends, failures}
+ *                               이메일별로 살아 있는 인증번호와 만료 시각(5분), 발급 횟수, 틀린 횟수. 10분
+ * verification:done:{이메일}    인증 타입            인증을 마친 이메일. 30분 안에 가입/비밀번호 변경을 끝내야 한다.
+ *
+ * 필드가 몇 개 안 되는 hash는 Redis가 listpack으로 압축해서 저장한다.
+ * 스크립트는 건드리는 키를 모두 KEYS로 받는다.
+ * 이전 인증번호의 code 키는 지우지 않고 만료되도록 두며, 이메일 hash의 code와 다르면 인증되지 않는다.
+ */
+@Repository
+@RequiredArgsConstructor
+public class VerificationCodeStore {
+
+    private static final String CODE_KEY_PREFIX = "verification:code:";
+    private static final String EMAIL_KEY_PREFIX = "verification:email:";
+    private static final String DONE_KEY_PREFIX = "verification:done:";
+
+    private static final Duration CODE_EXPIRATION = Duration.ofMinutes(5);
+    private static final Duration SEND_WINDOW = Duration.ofMinutes(10);
+    private static final Duration DONE_EXPIRATION = Duration.ofMinutes(30);
+    // SEND_WINDOW 동안 한 이메일로 보낼 수 있는 인증번호 개수
+    private static final int MAX_SENDS = 5;
+    // SEND_WINDOW 동안 한 이메일에 대해 틀릴 수 있는 횟수. 넘으면 SEND_WINDOW가 끝날 때까지 인증할 수 없다.
+    private static final int MAX_FAILURES = 5;
+
+    // 발급 횟수를 세고, 새 인증번호로 이전 인증번호를 덮어쓴다. 횟수를 넘으면 0.
+    private static final RedisScript<Long> ISSUE = new DefaultRedisScript<>(
+            "local sends = redis.call('HINCRBY', KEYS[1], 'sends', 1) " +
+                    "if sends == 1 then redis.call('EXPIRE', KEYS[1], ARGV[4]) end " +
+                    "if sends > tonumber(ARGV[5]) then return 0 end " +
+                    "redis.call('HSET', KEYS[1], 'code', ARGV[1], 'type', ARGV[2], 'expiresAt', ARGV[3]) " +
+                    "redis.call('SET', KEYS[2], ARGV[6], 'EX', ARGV[7]) " +
+                    "return 1", Long.class);
+
+    // 틀린 횟수를 넘었으면 -1. 인증번호와 타입이 맞으면 인증번호를 지우고 인증 완료 표시를 남긴 뒤 1.
+    // 살아 있는 인증번호가 있는데 틀리면 틀린 횟수를 올리고 0.
+    private static final RedisScript<Long> VERIFY = new DefaultRedisScript<>(
+            "local v = redis.call('HMGET', KEYS[1], 'code', 'type', 'expiresAt', 'failures') " +
+                    "if tonumber(v[4] or '0') >= tonumber(ARGV[4]) then return -1 end " +
+                    "if not v[1] or tonumber(v[3]) < tonumber(ARGV[3]) then return 0 end " +
+                    "if v[1] ~= ARGV[1] or v[2] ~= ARGV[2] then " +
+                    "redis.call('HINCRBY', KEYS[1], 'failures', 1) return 0 end " +
+                    "redis.call('HDEL', KEYS[1], 'code', 'type', 'expiresAt') " +
+                    "redis.call('DEL', KEYS[3]) " +
+                    "redis.call('SET', KEYS[2], ARGV[2], 'EX', ARGV[5]) " +
+                    "return 1", Long.class);
+
+    // 인증 완료 표시가 타입과 맞으면 지우고 1.
+    private static final RedisScript<Long> CONSUME = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then " +
+                    "redis.call('DEL', KEYS[1]) return 1 end " +
+                    "return 0", Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    /**
+     * 이메일로 보낼 인증번호 저장하기. 발급 횟수를 넘었으면 false.
+     */
+    public boolean issue(String email, EmailAuthorizationType type, String code) {
+        Long issued = redisTemplate.execute(ISSUE,
+                Arrays.asList(EMAIL_KEY_PREFIX + email, CODE_KEY_PREFIX + code),
+                code, type.name(),
+                String.valueOf(Instant.now().plus(CODE_EXPIRATION).getEpochSecond()),
+                String.valueOf(SEND_WINDOW.getSeconds()),
+                String.valueOf(MAX_SENDS),
+                email,
+                String.valueOf(CODE_EXPIRATION.getSeconds()));
+        return issued != null && issued == 1;
+    }
+
+    /**
+     * 인증번호 확인하기. 인증번호로 이메일을 찾은 뒤 그 이메일의 인증번호로 확인한다.
+     */
+    public VerifyResult verify(String code, EmailAuthorizationType type) {
+        String email = redisTemplate.opsForValue().get(CODE_KEY_PREFIX + code);
+        if(email == null)
+            return VerifyResult.MISMATCHED;
+        return verify(email, code, type);
+    }
+
+    /**
+     * 이메일로 보낸 인증번호 확인하기. 맞으면 인증번호를 지우고 인증 완료 표시를 남긴다.
+     * 틀리면 이메일의 틀린 횟수를 올린다.
+     */
+    public VerifyResult verify(String email, String code, EmailAuthorizationType type) {
+        Long result = redisTemplate.execute(VERIFY,
+                Arrays.asList(EMAIL_KEY_PREFIX + email, DONE_KEY_PREFIX + email, CODE_KEY_PREFIX + code),
+                code, type.name(),
+                String.valueOf(Instant.now().getEpochSecond()),
+                String.valueOf(MAX_FAILURES),
+                String.valueOf(DONE_EXPIRATION.getSeconds()));
+        if(result == null || result == 0)
+            return VerifyResult.MISMATCHED;
+        return result == 1 ? VerifyResult.VERIFIED : VerifyResult.LOCKED;
+    }
+
+    /**
+     * 인증을 마친 이메일인지 확인하고 인증 완료 표시 지우기.
+     */
+    public boolean consumeVerified(String email, EmailAuthorizationType type) {
+        Long consumed = redisTemplate.execute(CONSUME,
+                Collections.singletonList(DONE_KEY_PREFIX + email), type.name());
+        return consumed != null && consumed == 1;
+    }
+
+    public enum VerifyResult {
+        VERIFIED,
+        // 인증번호가 틀렸거나 만료된 경우
+        MISMATCHED,
+        // 틀린 횟수를 넘은 경우
+        LOCKED
+    }
+}
@@ -4,6 +4,7 @@ import com.matdori.matdori.domain.EmailAuthorizationType;
 import com.matdori.matdori.domain.User;
 import com.matdori.matdori.exception.*;
 import com.matdori.matdori.repositoy.UserRepository;
+import com.matdori.matdori.repositoy.VerificationCodeStore;
 import com.matdori.matdori.util.SessionUtil;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.redis.core.StringRedisTemplate;
@@ -22,6 +23,7 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class AuthorizationService {
     private final UserRepository userRepository;
+    private final VerificationCodeStore verificationCodeStore;
 
     /**
      * 로그인
@@ -42,9 +44,11 @@ public class AuthorizationService {
         String sessionCookie = SessionUtil.getSessionCookie(); // session의 key값을 가져온다.
         if(sessionCookie == null)  // 쿠키를 보내지 않은 경우
             throw new ExpiredSessionException(ErrorCode.INVALID_REQUIRED_COOKIE);
-        else if(SessionUtil.getAttribute(sessionCookie) == null) // 세션이 만료된 경우
+
+        String sessionUserId = SessionUtil.getSession(sessionCookie);
+        if(sessionUserId == null) // 세션이 만료된 경우
             throw new ExpiredSessionException(ErrorCode.EXPIRED_SESSION);
-        else if (pathParmUserId != Long.parseLong(SessionUtil.getAttribute(sessionCookie))) // 가지고 있는 쿠키로 접근할 수 없는 resource일 경우
+        else if (pathParmUserId != Long.parseLong(sessionUserId)) // 가지고 있는 쿠키로 접근할 수 없는 resource일 경우
             throw new InsufficientPrivilegesException(ErrorCode.INSUFFICIENT_PRIVILEGES);
     }
 
@@ -55,35 +59,38 @@ public class AuthorizationService {
         String sessionCookie = SessionUtil.getSessionCookie(); // session의 key값을 가져온다.
         if(sessionCookie == null)  // 프론트에서 쿠키를 보내지 않은 경우
             throw new ExpiredSessionException(ErrorCode.INVALID_REQUIRED_COOKIE);
-        else if(SessionUtil.getAttribute(sessionCookie) == null) // 세션이 만료된 경우
+        else if(SessionUtil.getSession(sessionCookie) == null) // 세션이 만료된 경우
             throw new ExpiredSessionException(ErrorCode.EXPIRED_SESSION);
 
-         SessionUtil.deleteAttribute(sessionCookie); // 세션을 날림. 다음에 프론트가 이전의 쿠키를 보내면 인증이 안됨.
+         SessionUtil.deleteSession(sessionCookie); // 세션을 날림. 다음에 프론트가 이전의 쿠키를 보내면 인증이 안됨.
     }
 
     /**
      * 이메일 인증 - 인증 번호 체크
      */
-    public static void checkAuthorizationNumber(String number, EmailAuthorizationType type){
+    public void checkAuthorizationNumber(String email, String number, EmailAuthorizationType type){
         if(number == null) // 인증번호를 보내지 않은 경우
             throw new InvalidRequiredParamException(ErrorCode.INVALID_REQUIRED_PARAM);
 
-        else if(SessionUtil.getAttribute(number) == null) // 인증번호에 해당하는 세션 값이 있는지 체크하기.
+        // 인증번호가 맞으면 인증번호를 지우고, 이메일 인증 없이 회원가입, 비밀번호 변경 하는 것을 막기 위해
+        // { email : type } 으로 인증 완료를 저장한다.
+        // 이메일을 보내지 않는 이전 클라이언트는 인증번호로 이메일을 찾는다.
+        VerificationCodeStore.VerifyResult result = email == null
+                ? verificationCodeStore.verify(number, type)
+                : verificationCodeStore.verify(email, number, type);
+        if(result == VerificationCodeStore.VerifyResult.LOCKED)
+            // 인증번호를 너무 많이 틀린 경우
+            throw new TooManyVerificationRequestsException(ErrorCode.TOO_MANY_VERIFICATION_ATTEMPTS);
+        if(result == VerificationCodeStore.VerifyResult.MISMATCHED)
             // 인증 가능 시간이 끝났거나 유효하지 않은 번호일 경우
             throw new ExpiredSessionException(ErrorCode.EXPIRED_SESSION);
-
-        // 이메일 인증 없이 회원가입, 비밀번호 변경 하는 것을 막기 위한 로직
-        // { email : type } 으로 세션 저장
-        String email = SessionUtil.getAttribute(number);
-        SessionUtil.setAttribute(email, type.name()); // type은 이메일 인증을 왜 하는지에 대한 케이스.
-        SessionUtil.deleteAttribute(number); // 인증이 되었으면, 더 이상 필요없는 인증 번호이기 때문에 날리기.
     }
 
-    public static void checkEmailVerificationCompletion(String email, EmailAuthorizationType type){
-        if (SessionUtil.getAttribute(email) == null || SessionUtil.getAttribute(email) != type.name())
+    /**
+     * 이메일 인증을 마쳤는지 확인. 한 번 확인하면 인증 완료 표시는 지워진다.
+     */
+    public void checkEmailVerificationCompletion(String email, EmailAuthorizationType type){
+        if (!verificationCodeStore.consumeVerified(email, type))
             throw new IncompleteEmailVerificationException(ErrorCode.INCOMPLETE_EMAIL_VERIFICATION);
-
-        SessionUtil.deleteAttribute(email);
-
     }
 }
@@ -0,0 +1,38 @@
+package com.matdori.matdori.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * catalog-import.file에 파일 경로를 주고 실행하면 서버가 뜰 때 가게 일괄 등록을 한다.
+ * 예) java -jar matdori.jar --catalog-import.file=/data/stores.json
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "catalog-import.file")
+public class CatalogImportRunner implements ApplicationRunner {
+
+    private final CatalogImportService catalogImportService;
+
+    @Value("${catalog-import.file}")
+    private String file;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        long start = System.currentTimeMillis();
+        try (InputStream inputStream = Files.newInputStream(Path.of(file))) {
+            int imported = catalogImportService.importCatalog(inputStream);
+            log.info("가게 일괄 등록 완료 file={} stores={} elapsedMs={}", file, imported, System.currentTimeMillis() - start);
+        }
+    }
+}
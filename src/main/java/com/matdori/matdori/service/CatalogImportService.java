@@ -0,0 +1,109 @@
+package com.matdori.matdori.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.matdori.matdori.domain.StoreCategory;
+import com.matdori.matdori.event.CatalogChangedEvent;
+import com.matdori.matdori.repositoy.CatalogImportRepository;
+import com.matdori.matdori.repositoy.Dto.CatalogStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+
+/**
+ * 가게/카테고리/메뉴 일괄 등록.
+ *
+ * 가게 배열로 된 JSON 파일을 한 가게씩 읽어서, BATCH_SIZE개마다 한 트랜잭션으로 저장한다.
+ * 파일 전체를 메모리에 올리지 않고, 중간에 실패해도 이미 커밋된 배치는 남는다.
+ * 이름과 주소가 같은 가게는 같은 가게로 보고 정보와 메뉴를 파일의 값으로 바꾸기 때문에 같은 파일을 다시 넣어도 결과가 같다.
+ */
+@Slf4j
+@Service
+public class CatalogImportService {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final CatalogImportRepository catalogImportRepository;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    public CatalogImportService(CatalogImportRepository catalogImportRepository, ObjectMapper objectMapper,
+                                ApplicationEventPublisher eventPublisher, PlatformTransactionManager transactionManager) {
+        this.catalogImportRepository = catalogImportRepository;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * 가게 배열 JSON을 읽어서 저장하기. 저장한 가게 수를 돌려준다.
+     */
+    public int importCatalog(InputStream inputStream) throws IOException {
+        int imported = 0;
+        try (JsonParser parser = objectMapper.getFactory().createParser(inputStream)) {
+            if(parser.nextToken() != JsonToken.START_ARRAY)
+                throw new IllegalArgumentException("가게 일괄 등록 파일은 가게 배열이어야 합니다.");
+
+            List<CatalogStore> batch = new ArrayList<>(BATCH_SIZE);
+            while(parser.nextToken() == JsonToken.START_OBJECT) {
+                batch.add(objectMapper.readValue(parser, CatalogStore.class));
+                if(batch.size() == BATCH_SIZE) {
+                    imported += saveBatch(batch);
+                    batch.clear();
+                }
+            }
+            if(!batch.isEmpty())
+                imported += saveBatch(batch);
+        } finally {
+            // 일부 배치만 저장된 경우에도 추천, 메뉴 캐시, ETag가 새 가게 정보를 보도록 한다.
+            if(imported > 0)
+                eventPublisher.publishEvent(new CatalogChangedEvent());
+        }
+        return imported;
+    }
+
+    private int saveBatch(List<CatalogStore> batch) {
+        // 같은 배치 안에서 이름과 주소가 같은 가게는 뒤의 것만 남긴다.
+        Map<String, CatalogStore> storesByKey = new LinkedHashMap<>();
+        for(CatalogStore store : batch) {
+            // 카테고리가 잘못된 가게가 있으면 배치를 쓰기 전에 실패한다.
+            StoreCategory.nameOf(store.getCategory());
+            storesByKey.put(CatalogImportRepository.storeKey(store.getName(), store.getAddress()), store);
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Set<String> names = new HashSet<>();
+            storesByKey.values().forEach(s -> names.add(s.getName()));
+            Map<String, Long> existingIds = catalogImportRepository.findStoreIds(names);
+
+            Map<Long, CatalogStore> existingStores = new LinkedHashMap<>();
+            List<CatalogStore> newStores = new ArrayList<>();
+            storesByKey.forEach((key, store) -> {
+                Long id = existingIds.get(key);
+                if(id == null)
+                    newStores.add(store);
+                else
+                    existingStores.put(id, store);
+            });
+
+            catalogImportRepository.updateStores(existingStores);
+            catalogImportRepository.deleteCategoriesAndMenus(existingStores.keySet());
+
+            Map<Long, CatalogStore> storesById = new LinkedHashMap<>(existingStores);
+            storesById.putAll(catalogImportRepository.insertStores(newStores));
+            catalogImportRepository.insertCategoriesAndMenus(storesById);
+            catalogImportRepository.upsertRatingSummaries(storesById);
+
+            log.info("가게 일괄 등록 배치 저장 new={} updated={}", newStores.size(), existingStores.size());
+        });
+        return storesByKey.size();
+    }
+}
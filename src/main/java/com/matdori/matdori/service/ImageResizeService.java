@@ -0,0 +1,213 @@
+package com.matdori.matdori.service;
+
+import com.matdori.matdori.domain.ImageVariant;
+import com.matdori.matdori.exception.ErrorCode;
+import com.matdori.matdori.exception.UnsupportedFileExtensionException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.EnumMap;
+import java.util.Map;
+
+@Service
+public class ImageResizeService {
+
+    private static final int EXIF_ORIENTATION_TAG = 0x0112;
+    private static final int NORMAL_ORIENTATION = 1;
+
+    /**
+     * 이미지를 한 번만 디코딩해서 크기별 이미지를 만들기.
+     * png는 투명도를 유지하기 위해 png로, 나머지는 jpg로 인코딩한다.
+     * 큰 크기부터 줄여 나가면서 바로 앞 단계의 결과를 다시 줄이기 때문에 원본은 한 번만 줄인다.
+     * ImageIO는 EXIF의 방향 정보를 무시하고 다시 인코딩하면 방향 정보도 사라지기 때문에, 줄이기 전에 픽셀을 돌려 둔다.
+     */
+    public Map<ImageVariant, ResizedImage> resize(MultipartFile multipartFile) throws IOException {
+
+        byte[] bytes = multipartFile.getBytes();
+        BufferedImage original;
+        try (InputStream inputStream = new ByteArrayInputStream(bytes)) {
+            original = ImageIO.read(inputStream);
+        }
+        // 이미지로 읽을 수 없는 파일인 경우.
+        if(original == null)
+            throw new UnsupportedFileExtensionException(ErrorCode.UNSUPPORTED_FILE_EXTENSION);
+
+        boolean png = multipartFile.getContentType() != null && multipartFile.getContentType().contains("image/png");
+        String format = png ? "png" : "jpg";
+        String contentType = png ? "image/png" : "image/jpeg";
+
+        Map<ImageVariant, ResizedImage> resizedImages = new EnumMap<>(ImageVariant.class);
+        BufferedImage source = applyOrientation(original, readExifOrientation(bytes), png);
+        ImageVariant[] variants = ImageVariant.values();
+        for(int i = variants.length - 1; i >= 0; i--) {
+            ImageVariant variant = variants[i];
+            source = scaleToWidth(source, variant.getMaxWidth(), png);
+            resizedImages.put(variant, new ResizedImage(encode(source, format), contentType, format));
+        }
+        return resizedImages;
+    }
+
+    /**
+     * 가로 길이가 maxWidth를 넘지 않도록 비율을 유지하면서 줄이기.
+     * 한 번에 크게 줄이면 bilinear 보간에서 계단 현상이 생기기 때문에 절반씩 나눠서 줄인다.
+     */
+    private BufferedImage scaleToWidth(BufferedImage source, int maxWidth, boolean keepAlpha) {
+        int type = keepAlpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        int targetWidth = Math.min(source.getWidth(), maxWidth);
+
+        BufferedImage current = source;
+        do {
+            int width = Math.max(targetWidth, current.getWidth() / 2);
+            if(width == current.getWidth() && current.getType() == type)
+                break;
+            current = draw(current, width, type);
+        } while(current.getWidth() > targetWidth);
+        return current;
+    }
+
+    private BufferedImage draw(BufferedImage source, int width, int type) {
+        int height = Math.max(1, (int) Math.round((double) source.getHeight() * width / source.getWidth()));
+
+        BufferedImage scaled = new BufferedImage(width, height, type);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return scaled;
+    }
+
+    /**
+     * EXIF 방향 값대로 이미지를 돌리거나 뒤집기.
+     * 5~8은 90도 회전이 들어가서 가로와 세로가 바뀐다.
+     */
+    private BufferedImage applyOrientation(BufferedImage source, int orientation, boolean keepAlpha) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        AffineTransform transform;
+        switch (orientation) {
+            case 2: transform = new AffineTransform(-1, 0, 0, 1, width, 0); break;
+            case 3: transform = new AffineTransform(-1, 0, 0, -1, width, height); break;
+            case 4: transform = new AffineTransform(1, 0, 0, -1, 0, height); break;
+            case 5: transform = new AffineTransform(0, 1, 1, 0, 0, 0); break;
+            case 6: transform = new AffineTransform(0, 1, -1, 0, height, 0); break;
+            case 7: transform = new AffineTransform(0, -1, -1, 0, height, width); break;
+            case 8: transform = new AffineTransform(0, -1, 1, 0, 0, width); break;
+            default: return source;
+        }
+
+        boolean swap = orientation >= 5;
+        BufferedImage oriented = new BufferedImage(swap ? height : width, swap ? width : height,
+                keepAlpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = oriented.createGraphics();
+        try {
+            graphics.drawImage(source, transform, null);
+        } finally {
+            graphics.dispose();
+        }
+        return oriented;
+    }
+
+    /**
+     * JPEG의 APP1(Exif) 세그먼트에서 IFD0의 방향 값(0x0112) 읽기.
+     * JPEG가 아니거나 방향 값이 없으면 1(그대로)을 돌려준다.
+     */
+    private int readExifOrientation(byte[] bytes) {
+        if(bytes.length < 4 || (bytes[0] & 0xFF) != 0xFF || (bytes[1] & 0xFF) != 0xD8)
+            return NORMAL_ORIENTATION;
+
+        int offset = 2;
+        while(offset + 4 <= bytes.length) {
+            if((bytes[offset] & 0xFF) != 0xFF)
+                return NORMAL_ORIENTATION;
+            int marker = bytes[offset + 1] & 0xFF;
+            // 채움 바이트
+            if(marker == 0xFF) {
+                offset++;
+                continue;
+            }
+            // 이미지 데이터가 시작되면 더 이상 메타데이터가 없다.
+            if(marker == 0xDA || marker == 0xD9)
+                return NORMAL_ORIENTATION;
+
+            int length = readUnsignedShort(bytes, offset + 2, true);
+            int segment = offset + 4;
+            int end = Math.min(bytes.length, offset + 2 + length);
+            if(marker == 0xE1 && segment + 6 <= end
+                    && bytes[segment] == 'E' && bytes[segment + 1] == 'x' && bytes[segment + 2] == 'i'
+                    && bytes[segment + 3] == 'f' && bytes[segment + 4] == 0 && bytes[segment + 5] == 0)
+                return readTiffOrientation(bytes, segment + 6, end);
+            offset += 2 + length;
+        }
+        return NORMAL_ORIENTATION;
+    }
+
+    private int readTiffOrientation(byte[] bytes, int tiff, int end) {
+        if(tiff + 8 > end)
+            return NORMAL_ORIENTATION;
+
+        boolean bigEndian;
+        if(bytes[tiff] == 'M' && bytes[tiff + 1] == 'M')
+            bigEndian = true;
+        else if(bytes[tiff] == 'I' && bytes[tiff + 1] == 'I')
+            bigEndian = false;
+        else
+            return NORMAL_ORIENTATION;
+
+        long ifdOffset = readUnsignedInt(bytes, tiff + 4, bigEndian);
+        if(ifdOffset < 8 || tiff + ifdOffset + 2 > end)
+            return NORMAL_ORIENTATION;
+
+        int ifd = (int) (tiff + ifdOffset);
+        int entryCount = readUnsignedShort(bytes, ifd, bigEndian);
+        for(int i = 0; i < entryCount; i++) {
+            int entry = ifd + 2 + i * 12;
+            if(entry + 12 > end)
+                break;
+            if(readUnsignedShort(bytes, entry, bigEndian) == EXIF_ORIENTATION_TAG) {
+                int orientation = readUnsignedShort(bytes, entry + 8, bigEndian);
+                return orientation >= 1 && orientation <= 8 ? orientation : NORMAL_ORIENTATION;
+            }
+        }
+        return NORMAL_ORIENTATION;
+    }
+
+    private int readUnsignedShort(byte[] bytes, int offset, boolean bigEndian) {
+        int first = bytes[offset] & 0xFF;
+        int second = bytes[offset + 1] & 0xFF;
+        return bigEndian ? (first << 8) | second : (second << 8) | first;
+    }
+
+    private long readUnsignedInt(byte[] bytes, int offset, boolean bigEndian) {
+        long high = readUnsignedShort(bytes, bigEndian ? offset : offset + 2, bigEndian);
+        long low = readUnsignedShort(bytes, bigEndian ? offset + 2 : offset, bigEndian);
+        return (high << 16) | low;
+    }
+
+    private byte[] encode(BufferedImage image, String format) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        ImageIO.write(image, format, outputStream);
+        return outputStream.toByteArray();
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class ResizedImage {
+        private final byte[] bytes;
+        private final String contentType;
+        private final String extension;
+    }
+}
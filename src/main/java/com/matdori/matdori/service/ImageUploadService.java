@@ -0,0 +1,193 @@
+package com.matdori.matdori.service;
+
+import com.matdori.matdori.domain.ImageVariant;
+import com.matdori.matdori.exception.ErrorCode;
+import com.matdori.matdori.exception.ImageUploadFailedException;
+import com.matdori.matdori.exception.NotExistedFileExtensionException;
+import com.matdori.matdori.exception.UnsupportedFileExtensionException;
+import com.matdori.matdori.storage.BlobStore;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.util.CollectionUtils;
+import org.springframework.util.ObjectUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.annotation.PreDestroy;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ImageUploadService {
+
+    private static final String JOKBO_IMAGE_PREFIX = "jokbo/";
+
+    private final BlobStore blobStore;
+    private final ImageResizeService imageResizeService;
+
+    // 이미지 크기를 줄이는 작업은 CPU를 쓰기 때문에 코어 수만큼의 스레드에서만 동시에 한다.
+    private final ExecutorService resizeExecutor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+
+    // 삭제는 응답을 기다리게 하지 않도록 별도 스레드에서 한다.
+    private final ExecutorService deleteExecutor = Executors.newSingleThreadExecutor();
+
+    @PreDestroy
+    public void shutdown() {
+        resizeExecutor.shutdown();
+        deleteExecutor.shutdown();
+    }
+
+    /**
+     * 족보 이미지들을 저장소에 업로드.
+     *
+     * 모든 파일의 확장자를 먼저 확인한 뒤, 이미지마다 썸네일/목록/상세 크기로 줄이고
+     * 저장소에 동시에 업로드한다. S3는 TransferManager의 스레드 풀에서 멀티파트로 나눠서 올린다.
+     * 하나라도 실패하면 이미 올라간 파일들을 지우고 예외를 던진다.
+     * DB 트랜잭션 밖에서 호출해야 업로드하는 동안 DB 커넥션을 잡고 있지 않는다.
+     */
+    public List<UploadedImage> uploadFiles(List<MultipartFile> multipartFiles) {
+
+        List<UploadedImage> uploadedImages = new ArrayList<>();
+        if(CollectionUtils.isEmpty(multipartFiles))
+            return uploadedImages;
+
+        // 파일의 확장자 체크
+        for(MultipartFile multipartFile : multipartFiles) {
+            String contentType = multipartFile.getContentType();
+
+            // 확장자가 존재하지 않는 경우.
+            if(ObjectUtils.isEmpty(contentType))
+                throw new NotExistedFileExtensionException(ErrorCode.NOT_EXISTED_FILE_EXTENSION);
+
+            // 확장자가 jpg, jpeg, png의 세 가지 중 하나인 경우에만 업로드 가능.
+            if(!contentType.contains("image/jpg") && !contentType.contains("image/jpeg") && !contentType.contains("image/png"))
+                throw new UnsupportedFileExtensionException(ErrorCode.UNSUPPORTED_FILE_EXTENSION);
+        }
+
+        // 이미지 크기 줄이기. 파일마다 동시에 처리한다.
+        List<Future<Map<ImageVariant, ImageResizeService.ResizedImage>>> resizing = new ArrayList<>();
+        for(MultipartFile multipartFile : multipartFiles) {
+            resizing.add(resizeExecutor.submit(() -> imageResizeService.resize(multipartFile)));
+        }
+
+        // 업로드를 모두 시작한 뒤에 기다리기 때문에 전체 시간은 가장 큰 파일의 업로드 시간에 가까워진다.
+        List<String> keys = new ArrayList<>();
+        List<BlobStore.PendingUpload> uploads = new ArrayList<>();
+        try {
+            for(Future<Map<ImageVariant, ImageResizeService.ResizedImage>> future : resizing) {
+                String fileName = UUID.randomUUID().toString();
+                Map<ImageVariant, String> urls = new EnumMap<>(ImageVariant.class);
+
+                for(Map.Entry<ImageVariant, ImageResizeService.ResizedImage> entry : future.get().entrySet()) {
+                    ImageResizeService.ResizedImage resizedImage = entry.getValue();
+                    String key = JOKBO_IMAGE_PREFIX + fileName + "_" + entry.getKey().getName() + "." + resizedImage.getExtension();
+
+                    keys.add(key);
+                    uploads.add(blobStore.upload(key, resizedImage.getBytes(), resizedImage.getContentType()));
+                    urls.put(entry.getKey(), blobStore.getUrl(key));
+                }
+                uploadedImages.add(new UploadedImage(urls));
+            }
+
+            for(BlobStore.PendingUpload upload : uploads) {
+                upload.waitForCompletion();
+            }
+        } catch (ExecutionException e) {
+            resizing.forEach(f -> f.cancel(true));
+            abortAndDelete(uploads, keys);
+            // 이미지로 읽을 수 없는 파일은 확장자 에러로 돌려준다.
+            if(e.getCause() instanceof UnsupportedFileExtensionException)
+                throw (UnsupportedFileExtensionException) e.getCause();
+            throw new ImageUploadFailedException(ErrorCode.IMAGE_UPLOAD_FAILED);
+        } catch (RuntimeException e) {
+            resizing.forEach(f -> f.cancel(true));
+            abortAndDelete(uploads, keys);
+            throw new ImageUploadFailedException(ErrorCode.IMAGE_UPLOAD_FAILED);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            resizing.forEach(f -> f.cancel(true));
+            abortAndDelete(uploads, keys);
+            throw new ImageUploadFailedException(ErrorCode.IMAGE_UPLOAD_FAILED);
+        }
+
+        return uploadedImages;
+    }
+
+    /**
+     * 저장소에서 이미지 url에 해당하는 파일을 삭제.
+     */
+    public void deleteFile(List<String> imgUrls) {
+        if(!CollectionUtils.isEmpty(imgUrls)) {
+            blobStore.deleteAll(getDeleteKey(imgUrls).stream()
+                    .map(uniqueFileName -> JOKBO_IMAGE_PREFIX + uniqueFileName)
+                    .collect(Collectors.toList()));
+        }
+    }
+
+    /**
+     * 저장소에서 이미지 url에 해당하는 파일을 비동기로 삭제.
+     * 족보가 이미 지워진 뒤라서 실패해도 응답에는 영향이 없고, 남은 파일은 로그로 남긴다.
+     */
+    public void deleteFileAsync(List<String> imgUrls) {
+        if(CollectionUtils.isEmpty(imgUrls))
+            return;
+
+        deleteExecutor.execute(() -> {
+            try {
+                deleteFile(imgUrls);
+            } catch (RuntimeException e) {
+                log.warn("족보 이미지 삭제 실패 urls={}", imgUrls, e);
+            }
+        });
+    }
+
+    /**
+     * 진행 중인 업로드는 취소하고, 이미 올라간 파일은 삭제.
+     */
+    private void abortAndDelete(List<BlobStore.PendingUpload> uploads, List<String> keys) {
+        for(BlobStore.PendingUpload upload : uploads) {
+            if(!upload.isDone())
+                upload.abort();
+        }
+        if(!keys.isEmpty())
+            blobStore.deleteAll(keys);
+    }
+
+    /**
+     * 이미지 url을 파싱해서 이미지의 UniqueFileName을 얻어옴.
+     */
+    private List<String> getDeleteKey(List<String> imgUrls) {
+
+        List<String> uniuqeFileNames = new ArrayList<>();
+        if(!CollectionUtils.isEmpty(imgUrls)) {
+            for(String imgUrl : imgUrls) {
+                String[] splitedUrl = imgUrl.split("/");
+                uniuqeFileNames.add(splitedUrl[splitedUrl.length-1]);
+            }
+        }
+        return uniuqeFileNames;
+    }
+
+    /**
+     * 업로드한 이미지 하나의 크기별 url.
+     */
+    @Getter
+    public static class UploadedImage {
+        private final Map<ImageVariant, String> urls;
+
+        public UploadedImage(Map<ImageVariant, String> urls) {
+            this.urls = urls;
+        }
+
+        public String getUrl(ImageVariant variant) {
+            return urls.get(variant);
+        }
+    }
+}
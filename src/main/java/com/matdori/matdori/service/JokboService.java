@@ -1,113 +1,114 @@
 package com.matdori.matdori.service;
 
-import com.amazonaws.services.s3.AmazonS3;
-import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.matdori.matdori.config.CacheConfig;
 import com.matdori.matdori.domain.*;
+import com.matdori.matdori.event.JokboCreatedEvent;
+import com.matdori.matdori.event.JokboRankingRebuiltEvent;
+import com.matdori.matdori.event.JokbosDeletedEvent;
 import com.matdori.matdori.exception.*;
 import com.matdori.matdori.repositoy.*;
+import com.matdori.matdori.repositoy.Dto.JokboCommentItem;
 import com.matdori.matdori.repositoy.Dto.JokboRichStore;
 import com.matdori.matdori.repositoy.Dto.MatdoriPick;
 import com.matdori.matdori.repositoy.Dto.StoreListByDepartment;
 import lombok.RequiredArgsConstructor;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.CollectionUtils;
-import org.springframework.util.ObjectUtils;
-import org.springframework.web.multipart.MultipartFile;
 
-import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional(readOnly = true)
 @RequiredArgsConstructor
 public class JokboService {
 
+    private static final String JOKBO_RANKING_LOCK = "reconcile:jokbo-ranking";
+    private static final Duration JOKBO_RANKING_LOCK_DURATION = Duration.ofMinutes(55);
+    private static final String JOKBO_COUNT_SYNC_LOCK = "reconcile:jokbo-counts";
+    private static final Duration JOKBO_COUNT_SYNC_LOCK_DURATION = Duration.ofHours(23);
+    private static final String JOKBO_COUNT_RECONCILE_LOCK = "reconcile:jokbo-count-cache";
+    private static final Duration JOKBO_COUNT_RECONCILE_LOCK_DURATION = Duration.ofMinutes(9);
+
     private final JokboRepository jokboRepository;
     private final JokboImgRepository jokboImgRepository;
     private final JokboCommentRepository jokboCommentRepository;
     private final StoreRepository storeRepository;
     private final JokboFavoriteRepository jokboFavoriteRepository;
-
-    private final AmazonS3 amazonS3;
-
-    @Value("matdori-repo/jokbo")
-    private String bucket;
+    private final JokboCommentFavoriteRepository jokboCommentFavoriteRepository;
+    private final StoreRatingSummaryRepository storeRatingSummaryRepository;
+    private final JokboCountRepository jokboCountRepository;
+    private final RecommendationIndex recommendationIndex;
+    private final DepartmentStoreCountRepository departmentStoreCountRepository;
+    private final JokboRankingRepository jokboRankingRepository;
+    private final SchedulerLockRepository schedulerLockRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
-     * 족보 작성하기.
+     * 족보 좋아요/댓글 개수와 댓글 좋아요 개수를 실제 개수로 맞추기.
+     * 개수 컬럼이 처음 추가됐을 때 기존 데이터를 채우고, 이후에는 어긋난 값만 바로잡는다.
+     * 테이블 전체를 갱신하기 때문에 서버가 여러 대이거나 자주 재시작해도 하루에 한 서버에서 한 번만 실행한다.
      */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "0 0 4 * * *")
     @Transactional
-    public void createJokbo(Jokbo jokbo, List<MultipartFile> images) throws IOException {
-
-        List<String> uploadedFileName = new ArrayList<>();
-        try {
-            // 족보 생성하기.
-            jokboRepository.save(jokbo);
-
-
-            // S3에 이미지 업로드하기
-            List<String> imageUrls = new ArrayList<>();
-            if(!CollectionUtils.isEmpty(images)) {
-
-                // 파일의 확장자 체크
-                for(MultipartFile image : images) {
-                    String contentType = image.getContentType();
-
-                    // 확장자가 존재하지 않는 경우.
-                    if(ObjectUtils.isEmpty(contentType)) {
-                        throw new NotExistedFileExtensionException(ErrorCode.NOT_EXISTED_FILE_EXTENSION);
-                    }
-
-                    else {
-                        // 확장자가 jpg, jpeg, png의 세 가지 중 하나인 경우에만 업로드 가능.
-                        if(!contentType.contains("image/jpg") && !contentType.contains("image/jpeg") && !contentType.contains("image/png")) {
-                            throw new UnsupportedFileExtensionException(ErrorCode.UNSUPPORTED_FILE_EXTENSION);
-                        }
-                    }
-                }
-
+    public void syncJokboCounts() {
+        if(!schedulerLockRepository.tryLock(JOKBO_COUNT_SYNC_LOCK, JOKBO_COUNT_SYNC_LOCK_DURATION))
+            return;
 
-                // 이미지 파일 S3에 업로드하여 이미지 url 리스트 받아오기.
-                for(MultipartFile image : images) {
-
-                    // FileName의 중복을 방지하기 위해 UUID를 이용해 파일에 새로 붙일 랜덤 이름을 생성.
-                    String originalFileName = image.getOriginalFilename();
-                    String uniqueFileName = UUID.randomUUID() + originalFileName;
-
-                    ObjectMetadata metadata = new ObjectMetadata();
-                    metadata.setContentLength(image.getSize());
-                    metadata.setContentType(image.getContentType());
-
-                    amazonS3.putObject(bucket, uniqueFileName, image.getInputStream(), metadata);
-
-                    imageUrls.add(amazonS3.getUrl(bucket, uniqueFileName).toString());
-                    uploadedFileName.add(uniqueFileName);
-                }
-            }
+        jokboRepository.syncCounts();
+        jokboCommentRepository.syncLikeCounts();
+    }
 
+    /**
+     * 학과별 가게 족보 개수가 비어 있으면 족보 테이블로부터 만들기.
+     * 테이블이 처음 만들어진 뒤 한 번만 실행되고, 이후에는 족보 작성/삭제 때 갱신된다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void initDepartmentStoreCounts() {
+        if(departmentStoreCountRepository.countAll() == 0)
+            departmentStoreCountRepository.rebuildAll();
+    }
 
-            // 족보 이미지 테이블에 S3로 부터 받아온 url 리스트 넣기.
-            if(!CollectionUtils.isEmpty(imageUrls)) {
-                for(String imgUrl : imageUrls) {
-                    jokboImgRepository.save(
-                            new JokboImg(
-                                    jokbo,
-                                    imgUrl
-                            )
-                    );
-                }
-            }
-        } catch (Exception e) {
-            // 족보 작성 중간에 문제가 발생했을 때 S3에 저장한 이미지 삭제
-            if(!CollectionUtils.isEmpty(uploadedFileName)) {
-                for(String uniqueFileName : uploadedFileName) {
-                    amazonS3.deleteObject(bucket, uniqueFileName);
-                }
+    /**
+     * 족보 작성하기.
+     * 이미지는 트랜잭션 밖에서 미리 업로드하고, 여기서는 족보와 이미지 url만 저장한다.
+     */
+    @Transactional
+    public void createJokbo(Jokbo jokbo, List<ImageUploadService.UploadedImage> images) {
+
+        // 족보 생성하기.
+        jokboRepository.save(jokbo);
+
+        // 가게 별점 집계와 학과별 가게 족보 개수에 반영하기.
+        storeRatingSummaryRepository.increase(jokbo);
+        increaseDepartmentStoreCount(jokbo, 1);
+        eventPublisher.publishEvent(new JokboCreatedEvent(jokbo.getStore().getId(), LocalDateTime.now()));
+
+        // 족보 이미지 테이블에 S3로 부터 받아온 크기별 url 넣기.
+        if(!CollectionUtils.isEmpty(images)) {
+            for(ImageUploadService.UploadedImage image : images) {
+                jokboImgRepository.save(
+                        new JokboImg(
+                                jokbo,
+                                image.getUrl(ImageVariant.DETAIL),
+                                image.getUrl(ImageVariant.LIST),
+                                image.getUrl(ImageVariant.THUMBNAIL)
+                        )
+                );
             }
         }
     }
@@ -135,42 +136,6 @@ public class JokboService {
         return jokbo.get();
     }
 
-    /**
-     * 선택된 id들에 해당하는 족보 조회하기
-     */
-    public List<Jokbo> findAllById(List<Long> jokboIdList) {
-
-        List<Jokbo> selectedJokboList = new ArrayList<>();
-        if(!CollectionUtils.isEmpty(jokboIdList)) {
-            for(Long jokboId : jokboIdList) {
-                Optional<Jokbo> jokbo = jokboRepository.findOne(jokboId);
-                if(!jokbo.isPresent()) throw new NotExistedJokboException(ErrorCode.NOT_EXISTED_JOKBO);
-
-                selectedJokboList.add(jokbo.get());
-            }
-        }
-
-        // 선택된 족보가 없는 경우
-        if(CollectionUtils.isEmpty(selectedJokboList)) throw new NotExistedSelectedJokboException(ErrorCode.NOT_EXISTED_SELECTED_JOKBO);
-
-        return selectedJokboList;
-    }
-
-    /**
-     * 삭제하기 위해 선택된 족보들에 딸린 이미지들 조회하기
-     */
-    public List<JokboImg> findAllImgById(List<Jokbo> jokboList) {
-
-        List<JokboImg> jokboImgs = new ArrayList<>();
-        if(!CollectionUtils.isEmpty(jokboList)) {
-            for(Jokbo jokbo : jokboList) {
-                List<JokboImg> currentImgs = jokbo.getJokboImgs();
-                jokboImgs.addAll(currentImgs);
-            }
-        }
-        return jokboImgs;
-    }
-
     /**
      * 족보에 매핑된 모든 이미지 url들을 조회하기
      */
@@ -185,47 +150,63 @@ public class JokboService {
     }
 
     /**
-     * 선택된 족보들 삭제하기
+     * 선택된 족보들 삭제하기. 삭제한 족보 이미지들의 크기별 url을 돌려준다.
+     * 족보 수와 상관없이 조회 두 번과 테이블별 DELETE 한 번씩으로 끝나고, 별점 집계와 학과별 개수는 가게별로 한 번씩 뺀다.
+     * 저장소에 저장된 족보 이미지는 커밋된 뒤에 호출하는 쪽에서 삭제한다.
      */
     @Transactional
-    public void deleteJokbo(Long userId, List<Jokbo> selectedJokboList, List<String> imgUrls) {
-
-        if(!CollectionUtils.isEmpty(selectedJokboList)) {
-            for(Jokbo jokbo : selectedJokboList) {
-                if(!jokbo.getUser().getId().equals(userId)) {
-                    // 다른 사람이 작성한 족보를 삭제하려고 하는 경우.
-                    throw new InsufficientPrivilegesException(ErrorCode.INSUFFICIENT_PRIVILEGES);
-                }
-
-                // 족보에 매핑된 좋아요들 삭제
-                jokboFavoriteRepository.deleteAllByJokboId(jokbo.getId());
+    public List<String> deleteJokbos(Long userId, List<Long> jokboIdList) {
 
-                // 족보에 매핑된 댓글들의 좋아요들 삭제
+        // 선택된 족보가 없는 경우
+        if(CollectionUtils.isEmpty(jokboIdList)) throw new NotExistedSelectedJokboException(ErrorCode.NOT_EXISTED_SELECTED_JOKBO);
 
-                // 족보에 매핑된 댓글들 삭제
-                jokboCommentRepository.deleteAllByJokboId(jokbo.getId());
+        List<Long> jokboIds = jokboIdList.stream().distinct().collect(Collectors.toList());
+        List<Jokbo> jokbos = jokboRepository.findAllWithUser(jokboIds);
+        if(jokbos.size() != jokboIds.size()) throw new NotExistedJokboException(ErrorCode.NOT_EXISTED_JOKBO);
 
-                // 족보 삭제
-                jokboRepository.delete(jokbo.getId());
-            }
+        for(Jokbo jokbo : jokbos) {
+            // 다른 사람이 작성한 족보를 삭제하려고 하는 경우.
+            if(!jokbo.getUser().getId().equals(userId))
+                throw new InsufficientPrivilegesException(ErrorCode.INSUFFICIENT_PRIVILEGES);
         }
 
+        List<String> imgUrls = new ArrayList<>();
+        for(JokboImg jokboImg : jokboImgRepository.findAllByJokboIds(jokboIds))
+            imgUrls.addAll(jokboImg.getAllImgUrls());
+
+        // 족보에 매핑된 댓글 좋아요, 좋아요, 댓글, 이미지를 지운 뒤 족보 삭제
+        jokboCommentFavoriteRepository.deleteAllByJokboIds(jokboIds);
+        jokboFavoriteRepository.deleteAllByJokboIds(jokboIds);
+        jokboCommentRepository.deleteAllByJokboIds(jokboIds);
+        jokboImgRepository.deleteAllByJokboIds(jokboIds);
+        jokboRepository.deleteAllByIds(jokboIds);
+
+        // 가게 별점 집계에서 빼기
+        jokbos.stream()
+                .collect(Collectors.groupingBy(j -> j.getStore().getId()))
+                .forEach((storeId, storeJokbos) -> storeRatingSummaryRepository.decrease(
+                        storeId,
+                        storeJokbos.size(),
+                        storeJokbos.stream().mapToLong(Jokbo::getFlavorRating).sum(),
+                        storeJokbos.stream().mapToLong(Jokbo::getUnderPricedRating).sum(),
+                        storeJokbos.stream().mapToLong(Jokbo::getCleanRating).sum()));
+
+        // 학과별 가게 족보 개수에서 빼기. 작성자가 모두 같아서 가게별로 한 번씩 뺀다.
+        Department department = jokbos.get(0).getUser().getDepartment();
+        if(department != null)
+            jokbos.stream()
+                    .collect(Collectors.groupingBy(j -> j.getStore().getId(), Collectors.counting()))
+                    .forEach((storeId, count) -> departmentStoreCountRepository.increase(department, storeId, -count));
+
+        Map<LocalDate, Map<Long, Long>> countsByDay = jokbos.stream()
+                .filter(j -> j.getCreatedAt() != null)
+                .collect(Collectors.groupingBy(j -> j.getCreatedAt().toLocalDate(),
+                        Collectors.groupingBy(j -> j.getStore().getId(), Collectors.counting())));
+        eventPublisher.publishEvent(new JokbosDeletedEvent(
+                jokbos.stream().collect(Collectors.groupingBy(j -> j.getStore().getId(), Collectors.counting())),
+                countsByDay));
 
-        // S3에 저장된 족보 이미지 삭제.
-        if(!CollectionUtils.isEmpty(imgUrls)) {
-
-            // 이미지 url을 파싱해서 이미지의 UniqueFileName을 얻어옴.
-            List<String> uniqueFileNames = new ArrayList<>();
-            for(String imgUrl : imgUrls) {
-                String[] splitedUrl = imgUrl.split("/");
-                uniqueFileNames.add(splitedUrl[splitedUrl.length-1]);
-            }
-
-            // S3에서 해당 파일을 삭제.
-            for(String uniqueFileName : uniqueFileNames) {
-                amazonS3.deleteObject(bucket, uniqueFileName);
-            }
-        }
+        return imgUrls;
     }
 
     /**
@@ -235,21 +216,33 @@ public class JokboService {
     public void createJokboComment(JokboComment jokboComment) {
 
         jokboCommentRepository.save(jokboComment);
+        jokboRepository.increaseCommentCount(jokboComment.getJokbo().getId(), 1);
     }
 
     /**
      * 족보에 달린 모든 댓글 조회하기.
+     * 댓글 목록 쿼리 하나와 조회하는 유저의 좋아요 IN 쿼리 하나로 한 페이지를 만든다.
      */
-    public List<JokboComment> getAllJokboComments(Long jokboId, Long cursor) {
+    public List<JokboCommentItem> getAllJokboComments(Long jokboId, Long cursor, Long viewerId) {
 
-        // 없는 족보에 대한 댓글을 조회하려고 하는 경우
-        Optional<Jokbo> jokbo = jokboRepository.findOne(jokboId);
-        if(!jokbo.isPresent()) throw new NotExistedJokboException(ErrorCode.NOT_EXISTED_JOKBO);
+        List<JokboCommentItem> comments = cursor == null
+                ? jokboCommentRepository.findAllJokboComments(jokboId)
+                : jokboCommentRepository.findCommentsAtJokboDescendingById(jokboId, cursor);
 
-        if(cursor == null) {
-            return jokboCommentRepository.findAllJokboComments(jokboId);
+        // 댓글이 없을 때만 없는 족보에 대한 댓글을 조회하려고 하는 경우인지 확인
+        if(comments.isEmpty()) {
+            Optional<Jokbo> jokbo = jokboRepository.findOne(jokboId);
+            if(!jokbo.isPresent()) throw new NotExistedJokboException(ErrorCode.NOT_EXISTED_JOKBO);
+            return comments;
         }
-        return jokboCommentRepository.findCommentsAtJokboDescendingById(jokboId, cursor);
+
+        Map<Long, Long> favoriteIds = jokboCommentFavoriteRepository.findIdsByCommentIds(
+                viewerId,
+                comments.stream().map(JokboCommentItem::getCommentIndex).collect(Collectors.toList()));
+        for(JokboCommentItem comment : comments) {
+            comment.setCommentFavoriteId(favoriteIds.get(comment.getCommentIndex()));
+        }
+        return comments;
     }
 
     /**
@@ -264,62 +257,71 @@ public class JokboService {
     }
 
     /**
-     * 선택된 댓글들 조회하기.
+     * 선택된 댓글들 삭제하기. -> 진짜 삭제하지는 않고 is_deleted를 true로 바꿈.
+     * 선택한 개수와 상관없이 UPDATE 한 번으로 끝난다.
+     * 바뀌지 않은 댓글이 있을 때만 댓글들을 조회해서 원인에 맞는 예외를 던지고, 예외로 트랜잭션이 롤백된다.
      */
-    public List<JokboComment> getSelectedJokboComments(Long userId, List<Long> jokboCommentIdList) {
+    @Transactional
+    public void deleteJokboComments(Long userId, List<Long> jokboCommentIdList) {
 
-        List<JokboComment> selectedJokboCommentList = new ArrayList<>();
-        if(!CollectionUtils.isEmpty(jokboCommentIdList)) {
-            for(Long jokboCommentId : jokboCommentIdList) {
-                Optional<JokboComment> jokboComment = jokboCommentRepository.findOne(jokboCommentId);
-                if(!jokboComment.isPresent() || jokboComment.get().getIsDeleted()) throw new NotExistedJokboCommentException(ErrorCode.NOT_EXISTED_JOKBO_COMMENT);
+        // 선택된 댓글이 없는 경우
+        if(CollectionUtils.isEmpty(jokboCommentIdList)) throw new NotExistedSelectedJokboCommentException(ErrorCode.NOT_EXISTED_SELECTED_JOKBO_COMMENT);
 
-                selectedJokboCommentList.add(jokboComment.get());
-            }
-        }
+        List<Long> jokboCommentIds = jokboCommentIdList.stream().distinct().collect(Collectors.toList());
+        List<Long> deletedIds = jokboCommentRepository.softDelete(jokboCommentIds, userId);
+        if(deletedIds.size() == jokboCommentIds.size())
+            return;
 
-        // 선택된 댓글이 없는 경우
-        if(CollectionUtils.isEmpty(selectedJokboCommentList)) throw new NotExistedSelectedJokboCommentException(ErrorCode.NOT_EXISTED_SELECTED_JOKBO_COMMENT);
+        List<JokboComment> selectedJokboComments = jokboCommentRepository.findAllByIds(jokboCommentIds);
+        // 없거나 이미 삭제된 댓글이 있는 경우.
+        if(selectedJokboComments.size() != jokboCommentIds.size()
+                || selectedJokboComments.stream().anyMatch(c -> c.getIsDeleted() && !deletedIds.contains(c.getId())))
+            throw new NotExistedJokboCommentException(ErrorCode.NOT_EXISTED_JOKBO_COMMENT);
 
-        return selectedJokboCommentList;
+        // 다른 사람이 작성한 댓글을 삭제하려고 하는 경우.
+        throw new InsufficientPrivilegesException(ErrorCode.INSUFFICIENT_PRIVILEGES);
     }
 
     /**
-     * 선택된 댓글들 삭제하기. -> 진짜 삭제하지는 않고 is_deleted를 true로 바꿈.
+     * 족보의 총 개수 조회하기.
+     * Redis 카운터를 읽고, 카운터가 없을 때만 테이블에서 세서 카운터를 만든다.
      */
-    @Transactional
-    public void deleteJokboComment(Long userId, List<JokboComment> selectedJokboCommentList) {
-
-        if(!CollectionUtils.isEmpty(selectedJokboCommentList)) {
-            for(JokboComment jokboComment : selectedJokboCommentList) {
-                if(!jokboComment.getUser().getId().equals(userId)) {
-                    // 다른 사람이 작성한 댓글을 삭제하려고 하는 경우.
-                    throw new InsufficientPrivilegesException(ErrorCode.INSUFFICIENT_PRIVILEGES);
-                }
-            }
-        }
+    public long countAll() {
 
-        if(!CollectionUtils.isEmpty(selectedJokboCommentList)) {
-            for(JokboComment jokboComment : selectedJokboCommentList) {
-                jokboComment.setIsDeleted(true);
-            }
-        }
+        return jokboCountRepository.findTotal().orElseGet(() -> {
+            long count = jokboRepository.countAll();
+            jokboCountRepository.initTotal(count);
+            return count;
+        });
     }
 
     /**
-     * 족보의 총 개수 조회하기.
+     * Redis 족보 개수 카운터를 테이블의 실제 개수로 맞추기.
+     * 카운터를 만드는 중에 커밋된 작성/삭제처럼 카운터에 반영되지 못한 변경을 주기적으로 바로잡는다.
+     * 서버가 여러 대여도 한 주기에 한 서버만 실행한다.
      */
-    public int countAll() {
+    @Scheduled(fixedDelay = 10 * 60 * 1000, initialDelay = 60 * 1000)
+    public void reconcileJokboCounts() {
+
+        if(!schedulerLockRepository.tryLock(JOKBO_COUNT_RECONCILE_LOCK, JOKBO_COUNT_RECONCILE_LOCK_DURATION))
+            return;
 
-        return jokboRepository.countAll();
+        jokboCountRepository.deleteMismatched(jokboRepository.countAll(), jokboRepository.countAllGroupByStore());
     }
 
     /**
      * 해당 학과의 족보가 가장 많은 가게 구하기
      */
-    public List<Store> getStoreListByDepartment(String department) {
+    @Cacheable(cacheNames = CacheConfig.DEPARTMENT_STORES, key = "#department", sync = true)
+    public List<StoreListByDepartment> getStoreListByDepartment(String department) {
 
-        return storeRepository.getStoreListByDepartment(Department.nameOf(department));
+        return departmentStoreCountRepository.findTopStores(Department.nameOf(department), 10);
+    }
+
+    private void increaseDepartmentStoreCount(Jokbo jokbo, long delta) {
+        Department department = jokbo.getUser().getDepartment();
+        if(department != null)
+            departmentStoreCountRepository.increase(department, jokbo.getStore().getId(), delta);
     }
 
     /**
@@ -329,7 +331,7 @@ public class JokboService {
 
         List<MatdoriPick> matdoriPick = new ArrayList<>();
 
-        List<Store> randomStores = storeRepository.getMatdoriPick();
+        List<Store> randomStores = storeRepository.findAllByIds(recommendationIndex.sampleStores(3));
         if(!CollectionUtils.isEmpty(randomStores)) {
             for(Store store : randomStores) {
                 matdoriPick.add(new MatdoriPick(store.getId(), store.getName(), store.getImgUrl()));
@@ -341,9 +343,37 @@ public class JokboService {
 
     /**
      * 족보 부자 가게 리스트 조회하기.
+     * Redis에 날짜별로 쌓은 가게 족보 작성 수에서 최근 30일 상위 3개 가게를 가져온다.
      */
+    @Cacheable(cacheNames = CacheConfig.JOKBO_RICH_STORES, key = "'all'", sync = true)
     public List<JokboRichStore> getJokboRichStores() {
 
-        return storeRepository.getJokboRichStores();
+        Map<Long, Long> top = jokboRankingRepository.findTop(3);
+        Map<Long, Store> stores = storeRepository.findAllByIds(new ArrayList<>(top.keySet())).stream()
+                .collect(Collectors.toMap(Store::getId, store -> store));
+
+        List<JokboRichStore> jokboRichStores = new ArrayList<>();
+        top.forEach((storeId, count) -> {
+            Store store = stores.get(storeId);
+            if(store != null)
+                jokboRichStores.add(new JokboRichStore(store.getId(), store.getName(), store.getImgUrl(), count.intValue()));
+        });
+        return jokboRichStores;
+    }
+
+    /**
+     * Redis의 날짜별 족보 작성 수를 족보 테이블의 실제 개수로 맞추기.
+     * 서버가 뜰 때 비어 있는 버킷을 채우고, 이후에는 반영되지 못한 변경을 한 시간마다 바로잡는다.
+     * 서버가 여러 대여도 한 주기에 한 서버만 실행하고, 다 만든 뒤에 족보 부자 가게 캐시를 비운다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelay = 60 * 60 * 1000, initialDelay = 60 * 60 * 1000)
+    public void reconcileJokboRanking() {
+
+        if(!schedulerLockRepository.tryLock(JOKBO_RANKING_LOCK, JOKBO_RANKING_LOCK_DURATION))
+            return;
+
+        jokboRankingRepository.overwrite(jokboRepository.countGroupByDayAndStore(jokboRankingRepository.firstDayOfWindow()));
+        eventPublisher.publishEvent(new JokboRankingRebuiltEvent());
     }
 }
@@ -0,0 +1,156 @@
+package com.matdori.matdori.service;
+
+import com.matdori.matdori.domain.MailOutbox;
+import com.matdori.matdori.repositoy.MailOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 메일 대기열(mail_outbox)을 읽어서 메일을 보내는 백그라운드 작업.
+ * 한 번에 여러 통을 JavaMailSender.send(SimpleMailMessage...)로 보내서 SMTP 연결 하나로 처리한다.
+ * 실패한 메일은 10초부터 두 배씩 늘어나는 간격(최대 10분)으로 다시 보낸다.
+ * 보냈거나 실패한 메일은 7일 동안 보관한 뒤 지운다.
+ */
+@Slf4j
+@Component
+public class MailDispatcher {
+
+    private static final String FROM_ADDRESS = "inha_matdori@naver.com";
+    private static final int BATCH_SIZE = 50;
+    private static final int MAX_ATTEMPTS = 5;
+    private static final Duration INITIAL_BACKOFF = Duration.ofSeconds(10);
+    private static final Duration MAX_BACKOFF = Duration.ofMinutes(10);
+    private static final Duration RETENTION = Duration.ofDays(7);
+
+    private final JavaMailSender mailSender;
+    private final MailOutboxRepository mailOutboxRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final AtomicLong pendingCount = new AtomicLong();
+    private final Timer sendTimer;
+    private final Counter sentCounter;
+    private final Counter failedCounter;
+
+    public MailDispatcher(JavaMailSender mailSender,
+                          MailOutboxRepository mailOutboxRepository,
+                          PlatformTransactionManager transactionManager,
+                          MeterRegistry meterRegistry) {
+        this.mailSender = mailSender;
+        this.mailOutboxRepository = mailOutboxRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+
+        Gauge.builder("mail.outbox.pending", pendingCount, AtomicLong::get)
+                .description("아직 보내지 않은 메일 개수")
+                .register(meterRegistry);
+        this.sendTimer = Timer.builder("mail.outbox.send")
+                .description("메일 묶음 하나를 보내는 데 걸린 시간")
+                .register(meterRegistry);
+        this.sentCounter = Counter.builder("mail.outbox.sent").register(meterRegistry);
+        this.failedCounter = Counter.builder("mail.outbox.failed").register(meterRegistry);
+    }
+
+    /**
+     * 보낼 차례가 된 메일이 없을 때까지 묶음 단위로 보내기.
+     */
+    @Scheduled(fixedDelay = 1000)
+    public void dispatch() {
+        int sent;
+        do {
+            sent = transactionTemplate.execute(status -> dispatchBatch());
+        } while(sent == BATCH_SIZE);
+    }
+
+    /**
+     * 대기 중인 메일 개수 지표 갱신하기.
+     * 개수를 세는 쿼리가 매초 모든 서버에서 돌지 않도록 보내는 주기와 따로 1분마다 센다.
+     */
+    @Scheduled(fixedDelay = 60 * 1000)
+    public void refreshPendingCount() {
+        pendingCount.set(transactionTemplate.execute(status -> mailOutboxRepository.countPending()));
+    }
+
+    /**
+     * 보관 기간이 지난 보낸/실패한 메일 지우기.
+     */
+    @Scheduled(cron = "0 30 4 * * *")
+    public void purge() {
+        int deleted = transactionTemplate.execute(status ->
+                mailOutboxRepository.deleteFinishedBefore(LocalDateTime.now().minus(RETENTION)));
+        if(deleted > 0)
+            log.info("보관 기간이 지난 메일 삭제 count={}", deleted);
+    }
+
+    /**
+     * 메일 한 묶음을 잠그고 보낸 뒤 결과를 기록한다. 가져온 메일 개수를 반환.
+     */
+    private int dispatchBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<MailOutbox> mails = mailOutboxRepository.lockDispatchable(now, BATCH_SIZE);
+        if(mails.isEmpty())
+            return 0;
+
+        Map<SimpleMailMessage, MailOutbox> outboxByMessage = new IdentityHashMap<>();
+        List<SimpleMailMessage> messages = new ArrayList<>();
+        for(MailOutbox mail : mails) {
+            SimpleMailMessage message = new SimpleMailMessage();
+            message.setTo(mail.getToAddress());
+            message.setFrom(FROM_ADDRESS);
+            message.setSubject(mail.getSubject());
+            message.setText(mail.getText());
+            outboxByMessage.put(message, mail);
+            messages.add(message);
+        }
+
+        Map<Object, Exception> failedMessages = new IdentityHashMap<>();
+        Timer.Sample sample = Timer.start();
+        try {
+            mailSender.send(messages.toArray(new SimpleMailMessage[0]));
+        } catch (MailSendException e) {
+            failedMessages.putAll(e.getFailedMessages());
+            // 연결 자체가 실패하면 실패한 메일 목록이 비어 있을 수 있다.
+            if(failedMessages.isEmpty())
+                messages.forEach(m -> failedMessages.put(m, e));
+        } catch (MailException e) {
+            messages.forEach(m -> failedMessages.put(m, e));
+        } finally {
+            sample.stop(sendTimer);
+        }
+
+        for(SimpleMailMessage message : messages) {
+            MailOutbox mail = outboxByMessage.get(message);
+            if(failedMessages.containsKey(message)) {
+                mail.failed(MAX_ATTEMPTS, now.plus(backoff(mail.getAttempts())));
+                failedCounter.increment();
+                log.warn("메일 전송 실패 id={} attempts={}", mail.getId(), mail.getAttempts(), failedMessages.get(message));
+            } else {
+                mail.sent();
+                sentCounter.increment();
+            }
+        }
+        return mails.size();
+    }
+
+    private Duration backoff(int attempts) {
+        Duration backoff = INITIAL_BACKOFF.multipliedBy(1L << Math.min(attempts, 16));
+        return backoff.compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : backoff;
+    }
+}
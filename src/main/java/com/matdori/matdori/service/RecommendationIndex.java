@@ -0,0 +1,127 @@
+package com.matdori.matdori.service;
+
+import com.matdori.matdori.domain.StoreCategory;
+import com.matdori.matdori.event.CatalogChangedEvent;
+import com.matdori.matdori.repositoy.StoreRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 맛도리 픽, 가게/메뉴 추천에서 무작위로 뽑을 가게와 메뉴 id를 메모리에 들고 있는 인덱스.
+ * ORDER BY RANDOM()으로 테이블 전체를 정렬하지 않고, 배열에서 k개를 뽑은 뒤 id로 조회한다.
+ * 서버가 뜰 때, 가게/메뉴 정보가 바뀌었을 때, 그리고 10분마다 다시 만든다.
+ */
+@Component
+@RequiredArgsConstructor
+public class RecommendationIndex {
+
+    // 추천에서 빼는 가게 카테고리
+    public static final List<StoreCategory> NOT_RECOMMENDED_CATEGORIES =
+            Arrays.asList(StoreCategory.ETC, StoreCategory.DESSERT_COFFEE, StoreCategory.MEAL_KIT, StoreCategory.PUB);
+
+    private final StoreRepository storeRepository;
+
+    private volatile Snapshot snapshot = new Snapshot(new long[0], new long[0], new long[0]);
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void init() {
+        refresh();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(readOnly = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        refresh();
+    }
+
+    /**
+     * 가게와 메뉴 id 다시 읽어오기. 다 읽은 뒤에 한 번에 바꿔서 읽는 쪽은 항상 완성된 인덱스를 본다.
+     */
+    @Scheduled(fixedDelay = 10 * 60 * 1000, initialDelay = 10 * 60 * 1000)
+    @Transactional(readOnly = true)
+    public void refresh() {
+        List<Object[]> stores = storeRepository.findAllIdsAndCategories();
+        long[] storeIds = new long[stores.size()];
+        long[] recommendableStoreIds = new long[stores.size()];
+        int recommendable = 0;
+        for(int i = 0; i < stores.size(); i++) {
+            Long storeId = (Long) stores.get(i)[0];
+            storeIds[i] = storeId;
+            if(!NOT_RECOMMENDED_CATEGORIES.contains((StoreCategory) stores.get(i)[1]))
+                recommendableStoreIds[recommendable++] = storeId;
+        }
+
+        long[] menuIds = storeRepository.findMenuIdsExceptCategories(NOT_RECOMMENDED_CATEGORIES).stream()
+                .mapToLong(Long::longValue)
+                .toArray();
+
+        snapshot = new Snapshot(storeIds, Arrays.copyOf(recommendableStoreIds, recommendable), menuIds);
+    }
+
+    /**
+     * 모든 가게 중 k개 뽑기.
+     */
+    public List<Long> sampleStores(int k) {
+        return sample(snapshot.storeIds, k);
+    }
+
+    /**
+     * 추천 대상 카테고리의 가게 중 k개 뽑기.
+     */
+    public List<Long> sampleRecommendableStores(int k) {
+        return sample(snapshot.recommendableStoreIds, k);
+    }
+
+    /**
+     * 추천 대상 카테고리 가게의 메뉴 중 k개 뽑기.
+     */
+    public List<Long> sampleMenus(int k) {
+        return sample(snapshot.menuIds, k);
+    }
+
+    /**
+     * 서로 다른 k개의 원소를 O(k)에 뽑는다 (Floyd 알고리즘).
+     */
+    private List<Long> sample(long[] ids, int k) {
+        int n = ids.length;
+        if(k >= n) {
+            List<Long> all = new ArrayList<>(n);
+            for(long id : ids) all.add(id);
+            Collections.shuffle(all, ThreadLocalRandom.current());
+            return all;
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Set<Integer> picked = new LinkedHashSet<>();
+        for(int j = n - k; j < n; j++) {
+            int t = random.nextInt(j + 1);
+            picked.add(picked.contains(t) ? j : t);
+        }
+
+        List<Long> sampled = new ArrayList<>(k);
+        for(int index : picked) sampled.add(ids[index]);
+        Collections.shuffle(sampled, random);
+        return sampled;
+    }
+
+    private static class Snapshot {
+        private final long[] storeIds;
+        private final long[] recommendableStoreIds;
+        private final long[] menuIds;
+
+        private Snapshot(long[] storeIds, long[] recommendableStoreIds, long[] menuIds) {
+            this.storeIds = storeIds;
+            this.recommendableStoreIds = recommendableStoreIds;
+            this.menuIds = menuIds;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.matdori.matdori.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.matdori.matdori.domain.Response;
+import com.matdori.matdori.event.NoticeChangedEvent;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 학과 목록, 공지사항, 이용약관처럼 거의 바뀌지 않는 응답을 직렬화된 바이트로 저장하는 캐시.
+ *
+ * 리소스 버전(ETag)마다 한 번만 JSON으로 직렬화하고 gzip으로 미리 압축해 둔다.
+ * 버전을 먼저 읽고 DB를 조회하기 때문에, 커밋 후에 올라간 버전으로 예전 데이터가 저장되는 일은 없다.
+ */
+@Service
+@RequiredArgsConstructor
+public class ReferenceDataCache {
+
+    public static final String DEPARTMENTS = "departments";
+    public static final String NOTICE = "notice";
+    public static final String TERMS = "terms";
+
+    private final ObjectMapper objectMapper;
+    private final Map<String, SerializedBody> bodies = new ConcurrentHashMap<>();
+
+    /**
+     * 공지사항이 바뀌면 저장된 공지사항 응답 비우기.
+     * 다른 서버의 응답은 버전이 달라져서 다음 요청 때 다시 만들어진다.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNoticeChanged(NoticeChangedEvent event) {
+        bodies.remove(NOTICE);
+    }
+
+    /**
+     * 직렬화된 응답을 바로 내려주기.
+     * If-None-Match가 ETag와 같으면 304, 아니면 버전이 같은 저장된 바이트를 쓰고 없을 때만 loader로 조회한다.
+     * gzip 응답은 바이트가 다르기 때문에 ETag 뒤에 -gz를 붙여서 구분한다.
+     */
+    public ResponseEntity<byte[]> respond(String name, String etag, WebRequest webRequest, Supplier<?> loader) {
+        boolean gzip = acceptsGzip(webRequest.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        if(webRequest.checkNotModified(gzip ? gzipETag(etag) : etag))
+            return null;
+
+        SerializedBody body = bodies.get(name);
+        if(body == null || !body.getEtag().equals(etag)) {
+            body = serialize(etag, Response.success(loader.get()));
+            bodies.put(name, body);
+        }
+
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+
+        if(gzip)
+            return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(body.getGzipped());
+        return builder.body(body.getJson());
+    }
+
+    /**
+     * 닫는 따옴표 앞에 -gz 붙이기. "notice-123" -> "notice-123-gz"
+     */
+    private String gzipETag(String etag) {
+        return etag.substring(0, etag.length() - 1) + "-gz\"";
+    }
+
+    /**
+     * Accept-Encoding에서 gzip을 받을 수 있는지 확인하기.
+     * q=0은 받지 않는다는 뜻이고, gzip이 따로 적혀 있지 않으면 *의 q 값을 따른다.
+     */
+    private boolean acceptsGzip(String acceptEncoding) {
+        if(acceptEncoding == null)
+            return false;
+
+        Double gzipQuality = null;
+        Double anyQuality = null;
+        for(String token : acceptEncoding.split(",")) {
+            String[] parts = token.split(";");
+            String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+            double quality = 1.0;
+            for(int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if(parameter.startsWith("q=") || parameter.startsWith("Q=")) {
+                    try {
+                        quality = Double.parseDouble(parameter.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+
+            if(coding.equals("gzip") || coding.equals("x-gzip"))
+                gzipQuality = quality;
+            else if(coding.equals("*"))
+                anyQuality = quality;
+        }
+
+        if(gzipQuality != null)
+            return gzipQuality > 0;
+        return anyQuality != null && anyQuality > 0;
+    }
+
+    private SerializedBody serialize(String etag, Object value) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(value);
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4 + 64);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+                gzip.write(json);
+            }
+            return new SerializedBody(etag, json, out.toByteArray());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    private static class SerializedBody {
+        private final String etag;
+        private final byte[] json;
+        private final byte[] gzipped;
+    }
+}
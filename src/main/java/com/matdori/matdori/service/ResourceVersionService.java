@@ -0,0 +1,46 @@
+package com.matdori.matdori.service;
+
+import com.matdori.matdori.domain.Department;
+import com.matdori.matdori.repositoy.ResourceVersionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+/**
+ * 조건부 요청(If-None-Match)에 쓰는 ETag 만들기.
+ *
+ * 응답 본문을 해시하지 않고 리소스 버전으로 만들기 때문에 DB를 조회하기 전에 304로 응답할 수 있다.
+ * 이용약관은 저장하는 API가 없으므로 DB에서 직접 고친 뒤에는 Redis의 version:terms 값을 올려야 한다.
+ */
+@Service
+@RequiredArgsConstructor
+public class ResourceVersionService {
+
+    // 학과 목록은 enum이므로 배포될 때만 바뀐다.
+    private static final String DEPARTMENTS_ETAG =
+            "\"departments-" + Integer.toHexString(Department.getDepartmentList().hashCode()) + "\"";
+
+    private final ResourceVersionRepository resourceVersionRepository;
+
+    public String getNoticeETag() {
+        return etag(ResourceVersionRepository.NOTICE, resourceVersionRepository.find(ResourceVersionRepository.NOTICE));
+    }
+
+    public String getTermsETag() {
+        return etag(ResourceVersionRepository.TERMS, resourceVersionRepository.find(ResourceVersionRepository.TERMS));
+    }
+
+    /**
+     * 가게 정보와 메뉴의 ETag. 가게/메뉴 정보는 CatalogChangedEvent로만 바뀌므로 카탈로그 버전을 쓴다.
+     */
+    public String getStoreETag(String part, Long storeId) {
+        return etag("store-" + storeId + "-" + part, resourceVersionRepository.find(ResourceVersionRepository.CATALOG));
+    }
+
+    public String getDepartmentsETag() {
+        return DEPARTMENTS_ETAG;
+    }
+
+    private String etag(String resource, long version) {
+        return "\"" + resource + "-" + version + "\"";
+    }
+}
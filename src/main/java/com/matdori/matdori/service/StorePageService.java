@@ -0,0 +1,137 @@
+package com.matdori.matdori.service;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.matdori.matdori.exception.ErrorCode;
+import com.matdori.matdori.exception.StorePageTimeoutException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 가게 화면을 이루는 조회들을 동시에 실행하는 서비스.
+ *
+ * 조회마다 읽기 전용 트랜잭션을 따로 열기 때문에, 엔티티를 응답 객체로 바꾸는 일까지 조회 안에서 끝내야 한다.
+ * 서로 맞아야 하는 조회(가게 상단 정보, 족보 개수, 족보 목록)는 readSnapshot으로 한 트랜잭션에서 같은 스냅숏을 읽고,
+ * 나머지 독립적인 조회만 따로 나눠서 실행한다.
+ * 스레드 수를 DB 커넥션 풀의 절반으로 제한해서 요청이 몰려도 다른 요청이 쓸 커넥션을 남겨 두고,
+ * 대기열 없이 남는 스레드가 없으면 요청 스레드에서 바로 실행한다.
+ */
+@Service
+public class StorePageService {
+
+    // 커넥션 풀 크기를 알 수 없을 때 쓰는 풀 크기. Hikari 기본값과 같다.
+    private static final int DEFAULT_POOL_SIZE = 10;
+    private static final long TIMEOUT_SECONDS = 5;
+
+    private final TransactionTemplate readOnlyTransaction;
+    private final TransactionTemplate snapshotTransaction;
+    private final ThreadPoolExecutor executor;
+
+    public StorePageService(PlatformTransactionManager transactionManager, DataSource dataSource) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        // READ COMMITTED는 쿼리마다 스냅숏이 달라서, 트랜잭션 안의 모든 쿼리가 같은 스냅숏을 보도록 REPEATABLE READ로 연다.
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction.setReadOnly(true);
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+
+        int threadCount = Math.max(1, connectionPoolSize(dataSource) / 2);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threadCount, threadCount, 60, TimeUnit.SECONDS,
+                new SynchronousQueue<>(),
+                r -> {
+                    Thread thread = new Thread(r, "store-page-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * 읽기 전용 트랜잭션 안에서 조회를 비동기로 실행하기.
+     */
+    public <T> CompletableFuture<T> read(Supplier<T> reader) {
+        return CompletableFuture.supplyAsync(() -> readOnlyTransaction.execute(status -> reader.get()), executor);
+    }
+
+    /**
+     * 하나의 스냅숏을 읽는 읽기 전용 트랜잭션 안에서 여러 조회를 비동기로 실행하기.
+     */
+    public <T> CompletableFuture<T> readSnapshot(Supplier<T> reader) {
+        return CompletableFuture.supplyAsync(() -> snapshotTransaction.execute(status -> reader.get()), executor);
+    }
+
+    /**
+     * 모든 조회가 끝날 때까지 기다리기. 조회 전체에 TIMEOUT_SECONDS를 한 번만 적용한다.
+     * 조회 중에 던져진 예외는 그대로 다시 던져서 ExceptionManager가 원래 에러 코드로 응답하도록 한다.
+     */
+    public void awaitAll(CompletableFuture<?>... futures) {
+        CompletableFuture<Void> all = CompletableFuture.allOf(futures);
+        try {
+            all.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        } catch (TimeoutException e) {
+            cancelAll(futures);
+            throw new StorePageTimeoutException(ErrorCode.STORE_PAGE_TIMEOUT);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancelAll(futures);
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * awaitAll로 기다린 조회의 결과 꺼내기.
+     */
+    public <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw unwrap(e.getCause());
+        }
+    }
+
+    private RuntimeException unwrap(Throwable cause) {
+        if(cause instanceof CompletionException && cause.getCause() != null)
+            cause = cause.getCause();
+        if(cause instanceof RuntimeException)
+            return (RuntimeException) cause;
+        return new IllegalStateException(cause);
+    }
+
+    private void cancelAll(CompletableFuture<?>... futures) {
+        for(CompletableFuture<?> future : futures)
+            future.cancel(true);
+    }
+
+    private int connectionPoolSize(DataSource dataSource) {
+        try {
+            if(dataSource.isWrapperFor(HikariDataSource.class))
+                return dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+        } catch (SQLException e) {
+            // 풀 크기를 알 수 없으면 기본값을 쓴다.
+        }
+        return DEFAULT_POOL_SIZE;
+    }
+}
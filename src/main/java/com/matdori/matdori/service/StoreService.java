@@ -1,5 +1,6 @@
 package com.matdori.matdori.service;
 
+import com.matdori.matdori.config.CacheConfig;
 import com.matdori.matdori.domain.*;
 import com.matdori.matdori.exception.ErrorCode;
 import com.matdori.matdori.exception.NotExistStoreException;
@@ -7,10 +8,16 @@ import com.matdori.matdori.repositoy.Dto.MatdoriTop3;
 import com.matdori.matdori.repositoy.Dto.RecommendedMenu;
 import com.matdori.matdori.repositoy.Dto.RecommendedStore;
 import com.matdori.matdori.repositoy.Dto.StoreInformationHeader;
+import com.matdori.matdori.repositoy.Dto.StoreMenu;
+import com.matdori.matdori.repositoy.JokboCountRepository;
 import com.matdori.matdori.repositoy.JokboFavoriteRepository;
 import com.matdori.matdori.repositoy.JokboRepository;
+import com.matdori.matdori.repositoy.StoreRatingSummaryRepository;
 import com.matdori.matdori.repositoy.StoreRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -25,6 +32,23 @@ public class StoreService {
     private final StoreRepository storeRepository;
     private final JokboRepository jokboRepository;
     private final JokboFavoriteRepository jokboFavoriteRepository;
+    private final StoreRatingSummaryRepository storeRatingSummaryRepository;
+    private final JokboCountRepository jokboCountRepository;
+    private final RecommendationIndex recommendationIndex;
+
+    /**
+     * 가게 별점 집계가 비어 있거나 카테고리, 베이지안 점수가 채워지지 않은 집계가 있으면 족보 테이블로부터 다시 만들기.
+     * 집계 테이블이 처음 만들어진 뒤 한 번만 실행되고, 이후에는 족보 작성/삭제 때 갱신된다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void initStoreRatingSummary() {
+        if(storeRatingSummaryRepository.countAll() == 0
+                || storeRatingSummaryRepository.countWithoutCategory() > 0
+                || storeRatingSummaryRepository.countWithoutScore() > 0)
+            storeRatingSummaryRepository.rebuildAll();
+    }
+
     public List<Store> findAll() { return storeRepository.findAll(); }
     public Store findOne(Long id) {
         Store store = storeRepository.findOne(id);
@@ -32,7 +56,12 @@ public class StoreService {
         return store;
     }
 
-    public List<Category> findAllCategoryWithMenu (Long id) { return storeRepository.findAllCategoryWithMenu(id);}
+    /**
+     * 가게의 메뉴 조회하기.
+     * 메뉴는 거의 바뀌지 않아서 가게마다 캐시해 두고, 가게/메뉴 정보가 바뀌면 비운다.
+     */
+    @Cacheable(cacheNames = CacheConfig.STORE_MENU, key = "#storeId", sync = true)
+    public StoreMenu getStoreMenu(Long storeId) { return StoreMenu.from(storeRepository.findMenuRows(storeId));}
 
     public List<Jokbo> findAllJokbo(Long storeId, Double cursor, String sortingType, Long jokboIndex) {
         if(cursor == null)
@@ -41,7 +70,25 @@ public class StoreService {
         return jokboRepository.findJokbosDescendingById(storeId, cursor, SortingType.nameOf(sortingType) , jokboIndex);
     }
 
-    public Long countStoreJokbo(Long storeId) { return storeRepository.countStoreJokbo(storeId);}
+    /**
+     * 가게의 족보 개수 조회하기.
+     * Redis 카운터를 읽고, 카운터가 없을 때만 테이블에서 세서 카운터를 만든다.
+     */
+    public Long countStoreJokbo(Long storeId) {
+        return jokboCountRepository.findByStore(storeId).orElseGet(() -> {
+            Long count = storeRepository.countStoreJokbo(storeId);
+            jokboCountRepository.initByStore(storeId, count);
+            return count;
+        });
+    }
+
+    /**
+     * 가게의 족보 개수를 테이블에서 세기.
+     * 같은 트랜잭션에서 읽은 족보 목록과 개수가 맞아야 할 때 Redis 카운터 대신 쓴다.
+     */
+    public Long countStoreJokboFromTable(Long storeId) {
+        return storeRepository.countStoreJokbo(storeId);
+    }
 
     public com.matdori.matdori.repositoy.Dto.StoreInformationHeader readStoreInformationHeader(Long storeId) {
         Optional<StoreInformationHeader> storeInformationHeader = storeRepository.readStoreInformationHeader(storeId);
@@ -68,9 +115,9 @@ public class StoreService {
     /**
      * 가게에 매핑된 족보의 총 개수 조회하기.
      */
-    public int countAllJokbos(Long id) {
+    public long countAllJokbos(Long id) {
 
-        return jokboRepository.countAllAtStore(id);
+        return countStoreJokbo(id);
     }
 
 
@@ -99,21 +146,22 @@ public class StoreService {
     /**
      * 카테고리 별 총 가게 수
      */
+    @Cacheable(cacheNames = CacheConfig.STORE_COUNT, key = "#category", sync = true)
     public Long CountStoresByCategory(String category) { return storeRepository.countStoresByCategory(StoreCategory.nameOf(category));}
 
     /**
      * 가게 추천 받기
      */
-    public List<RecommendedStore> getRecommendedStore(){ return storeRepository.getRecommendedStore();}
+    public List<RecommendedStore> getRecommendedStore(){ return storeRepository.getRecommendedStore(recommendationIndex.sampleRecommendableStores(3));}
 
     /**
      * 메뉴 추천 받기
      */
-    public List<RecommendedMenu> getRecommendedMenu() {return storeRepository.getRecommendedMenu();}
+    public List<RecommendedMenu> getRecommendedMenu() {return storeRepository.getRecommendedMenu(recommendationIndex.sampleMenus(3));}
 
     /**
      * 맛도리 top 3
      */
-
-    public List<MatdoriTop3> getMatdoriTop3(String order) { return storeRepository.getMatdoriTop3(order);}
+    @Cacheable(cacheNames = CacheConfig.MATDORI_TOP3, key = "#axis.name()", sync = true)
+    public List<MatdoriTop3> getMatdoriTop3(RatingAxis axis) { return storeRatingSummaryRepository.findTopByScore(axis, 3);}
 }
@@ -4,7 +4,6 @@ import com.matdori.matdori.domain.*;
 import com.matdori.matdori.exception.*;
 import com.matdori.matdori.repositoy.*;
 import com.matdori.matdori.repositoy.Dto.FavoriteStore;
-import com.matdori.matdori.util.SessionUtil;
 import com.matdori.matdori.util.UserUtil;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -29,6 +28,7 @@ public class UserService {
     private final TermsAgreementRepository termsAgreementRepository;
     private final TermsOfServiceRepository termsOfServiceRepository;
     private final JokboCommentFavoriteRepository jokboCommentFavoriteRepository;
+    private final VerificationCodeStore verificationCodeStore;
 
     public User findOne(Long userId) { return userRepository.findOne(userId); }
 
@@ -91,7 +91,9 @@ public class UserService {
 
     @Transactional
     public void deleteFavoriteJokbo(List<Long> favoriteJokboId, Long userId) {
-        jokboFavoriteRepository.delete(favoriteJokboId, userId);
+        List<Long> jokboIds = jokboFavoriteRepository.delete(favoriteJokboId, userId);
+        // 실제로 삭제된 좋아요만큼 족보 좋아요 개수 줄이기
+        jokboRepository.decreaseFavoriteCounts(jokboIds);
     }
 
     /**
@@ -115,8 +117,11 @@ public class UserService {
         User user = userRepository.findOne(userId);
 
         Optional<Jokbo> jokbo = jokboRepository.findOne(jokboId);
-        if(jokbo.isPresent()) return jokboFavoriteRepository.save(new JokboFavorite(jokbo.get(), user));
-        else throw new NotExistedJokboException(ErrorCode.NOT_EXISTED_JOKBO);
+        if(!jokbo.isPresent()) throw new NotExistedJokboException(ErrorCode.NOT_EXISTED_JOKBO);
+
+        Long jokboFavoriteId = jokboFavoriteRepository.save(new JokboFavorite(jokbo.get(), user));
+        jokboRepository.increaseFavoriteCount(jokboId, 1);
+        return jokboFavoriteId;
     }
 
     /**
@@ -146,8 +151,7 @@ public class UserService {
             throw new InvalidPasswordException(ErrorCode.INVALID_PASSWORD_FORMAT);
 
         // 이메일 인증 여부 체크
-        EmailAuthorizationType type = EmailAuthorizationType.valueOf(SessionUtil.getAttribute(email));
-        if(type == null || type != EmailAuthorizationType.UPDATEPASSWORD)
+        if(!verificationCodeStore.consumeVerified(email, EmailAuthorizationType.UPDATEPASSWORD))
             // 이메일 인증을 하는 케이스가 잘못된 경우.(비밀번호 찾기를 위한 이메일 인증이 아닌 경우)
             throw new IncompleteEmailVerificationException(ErrorCode.INCOMPLETE_EMAIL_VERIFICATION);
 
@@ -213,8 +217,11 @@ public class UserService {
         User user = userRepository.findOne(userId);
 
         Optional<JokboComment> jokboComment = jokboCommentRepository.findOne(commentId);
-        if(jokboComment.isPresent()) return jokboCommentFavoriteRepository.save(new JokboCommentFavorite(jokboComment.get(), user));
-        else throw new NotExistedJokboCommentException(ErrorCode.NOT_EXISTED_JOKBO_COMMENT);
+        if(!jokboComment.isPresent()) throw new NotExistedJokboCommentException(ErrorCode.NOT_EXISTED_JOKBO_COMMENT);
+
+        Long jokboCommentFavoriteId = jokboCommentFavoriteRepository.save(new JokboCommentFavorite(jokboComment.get(), user));
+        jokboCommentRepository.increaseLikeCount(commentId, 1);
+        return jokboCommentFavoriteId;
     }
 
     /**
@@ -231,7 +238,9 @@ public class UserService {
             throw new InsufficientPrivilegesException(ErrorCode.INSUFFICIENT_PRIVILEGES);
         }
 
+        Long commentId = jokboCommentFavorite.get().getJokboComment().getId();
         jokboCommentFavoriteRepository.delete(favoriteCommentId);
+        jokboCommentRepository.increaseLikeCount(commentId, -1);
     }
 
     /**
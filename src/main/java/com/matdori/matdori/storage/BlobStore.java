@@ -0,0 +1,43 @@
+package com.matdori.matdori.storage;
+
+import java.util.List;
+
+/**
+ * 업로드한 파일을 저장하는 저장소.
+ * 운영에서는 S3를 쓰고, 네트워크가 없는 환경(부하 테스트, CI)에서는 로컬 디스크를 쓴다.
+ * blob-store.type 프로퍼티로 고르며 기본값은 s3.
+ */
+public interface BlobStore {
+
+    /**
+     * key 위치에 파일 업로드를 시작한다. 완료는 반환된 PendingUpload로 기다린다.
+     */
+    PendingUpload upload(String key, byte[] bytes, String contentType);
+
+    /**
+     * key 위치의 파일 삭제하기.
+     */
+    void delete(String key);
+
+    /**
+     * 여러 파일 한 번에 삭제하기.
+     */
+    void deleteAll(List<String> keys);
+
+    /**
+     * 클라이언트가 파일을 받아갈 수 있는 url.
+     */
+    String getUrl(String key);
+
+    /**
+     * 진행 중인 업로드.
+     */
+    interface PendingUpload {
+
+        void waitForCompletion() throws InterruptedException;
+
+        boolean isDone();
+
+        void abort();
+    }
+}
@@ -0,0 +1,107 @@
+package com.matdori.matdori.storage;
+
+import com.matdori.matdori.exception.ErrorCode;
+import com.matdori.matdori.exception.ImageUploadFailedException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * 로컬 디스크에 저장하는 BlobStore. 네트워크 없이 업로드 경로를 돌려보기 위한 용도.
+ * 임시 파일에 FileChannel로 쓴 뒤 이름을 바꿔서, 쓰는 도중의 파일이 정적 핸들러로 나가지 않게 한다.
+ * 저장한 파일은 LocalBlobStoreConfig에 등록한 정적 리소스 핸들러가 내려준다.
+ */
+@Component
+@ConditionalOnProperty(name = "blob-store.type", havingValue = "local")
+public class LocalBlobStore implements BlobStore {
+
+    private final Path root;
+    private final String baseUrl;
+
+    public LocalBlobStore(@Value("${blob-store.local.root:${java.io.tmpdir}/matdori-blobs}") String root,
+                          @Value("${blob-store.local.base-url:/files}") String baseUrl) {
+        this.root = Paths.get(root).toAbsolutePath().normalize();
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+    }
+
+    public Path getRoot() {
+        return root;
+    }
+
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    @Override
+    public PendingUpload upload(String key, byte[] bytes, String contentType) {
+        Path target = resolve(key);
+        try {
+            Files.createDirectories(target.getParent());
+            Path temp = Files.createTempFile(target.getParent(), ".upload", null);
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer buffer = ByteBuffer.wrap(bytes);
+                while(buffer.hasRemaining())
+                    channel.write(buffer);
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new ImageUploadFailedException(ErrorCode.IMAGE_UPLOAD_FAILED);
+        }
+
+        // 디스크 쓰기는 바로 끝나므로 이미 완료된 업로드를 돌려준다.
+        return new PendingUpload() {
+            @Override
+            public void waitForCompletion() {
+            }
+
+            @Override
+            public boolean isDone() {
+                return true;
+            }
+
+            @Override
+            public void abort() {
+            }
+        };
+    }
+
+    @Override
+    public void delete(String key) {
+        try {
+            Files.deleteIfExists(resolve(key));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void deleteAll(List<String> keys) {
+        keys.forEach(this::delete);
+    }
+
+    @Override
+    public String getUrl(String key) {
+        return baseUrl + "/" + key;
+    }
+
+    /**
+     * key가 root 밖을 가리키지 못하게 막는다.
+     */
+    private Path resolve(String key) {
+        Path path = root.resolve(key).normalize();
+        if(!path.startsWith(root))
+            throw new IllegalArgumentException("invalid key: " + key);
+        return path;
+    }
+}
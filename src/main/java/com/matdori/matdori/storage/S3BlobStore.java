@@ -0,0 +1,81 @@
+package com.matdori.matdori.storage;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.DeleteObjectsRequest;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.transfer.TransferManager;
+import com.amazonaws.services.s3.transfer.Upload;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * AWS S3 버킷에 저장하는 BlobStore.
+ * TransferManager의 스레드 풀에서 업로드하기 때문에 upload는 바로 반환된다.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "blob-store.type", havingValue = "s3", matchIfMissing = true)
+public class S3BlobStore implements BlobStore {
+
+    private static final int MAX_DELETE_KEYS = 1000;
+
+    private final AmazonS3 amazonS3;
+    private final TransferManager transferManager;
+
+    @Value("${cloud.aws.s3.bucket}")
+    private String bucket;
+
+    @Override
+    public PendingUpload upload(String key, byte[] bytes, String contentType) {
+        ObjectMetadata metadata = new ObjectMetadata();
+        metadata.setContentLength(bytes.length);
+        metadata.setContentType(contentType);
+
+        Upload upload = transferManager.upload(bucket, key, new ByteArrayInputStream(bytes), metadata);
+        return new PendingUpload() {
+            @Override
+            public void waitForCompletion() throws InterruptedException {
+                upload.waitForCompletion();
+            }
+
+            @Override
+            public boolean isDone() {
+                return upload.isDone();
+            }
+
+            @Override
+            public void abort() {
+                upload.abort();
+            }
+        };
+    }
+
+    @Override
+    public void delete(String key) {
+        amazonS3.deleteObject(bucket, key);
+    }
+
+    /**
+     * S3의 여러 객체 삭제 요청은 한 번에 최대 1000개까지라서 1000개씩 나눠서 보낸다.
+     */
+    @Override
+    public void deleteAll(List<String> keys) {
+        for(int from = 0; from < keys.size(); from += MAX_DELETE_KEYS) {
+            List<DeleteObjectsRequest.KeyVersion> keyVersions = keys.subList(from, Math.min(from + MAX_DELETE_KEYS, keys.size())).stream()
+                    .map(DeleteObjectsRequest.KeyVersion::new)
+                    .collect(Collectors.toList());
+            amazonS3.deleteObjects(new DeleteObjectsRequest(bucket).withKeys(keyVersions).withQuiet(true));
+        }
+    }
+
+    @Override
+    public String getUrl(String key) {
+        return amazonS3.getUrl(bucket, key).toString();
+    }
+}
@@ -0,0 +1,87 @@
+package com.matdori.matdori.util;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.experimental.UtilityClass;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.connection.RedisStringCommands;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 여러 Redis 명령을 파이프라인으로 묶어서 한 번의 왕복으로 보내는 도우미.
+ */
+@UtilityClass
+public class RedisPipelineUtil {
+
+    /**
+     * 키들의 값과 남은 만료 시간(ms)을 한 번에 조회하기. 없는 키는 value가 null.
+     */
+    public static Map<String, ValueWithTtl> getAllWithTtl(RedisTemplate<String, String> redisTemplate, List<String> keys) {
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for(String key : keys) {
+                byte[] rawKey = key.getBytes(StandardCharsets.UTF_8);
+                connection.stringCommands().get(rawKey);
+                connection.keyCommands().pTtl(rawKey);
+            }
+            return null;
+        });
+
+        Map<String, ValueWithTtl> values = new LinkedHashMap<>();
+        for(int i = 0; i < keys.size(); i++) {
+            values.put(keys.get(i), new ValueWithTtl((String) results.get(2 * i), (Long) results.get(2 * i + 1)));
+        }
+        return values;
+    }
+
+    /**
+     * 키 하나의 값과 남은 만료 시간(ms)을 한 번에 조회하기.
+     */
+    public static ValueWithTtl getWithTtl(RedisTemplate<String, String> redisTemplate, String key) {
+        List<String> keys = new ArrayList<>();
+        keys.add(key);
+        return getAllWithTtl(redisTemplate, keys).get(key);
+    }
+
+    /**
+     * 여러 키를 한 번에 저장하기. ttl이 null이면 만료 시간 없이 저장한다.
+     */
+    public static void setAll(RedisTemplate<String, String> redisTemplate, Map<String, String> values, Duration ttl) {
+        Expiration expiration = ttl == null ? Expiration.persistent() : Expiration.from(ttl);
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            values.forEach((key, value) -> connection.stringCommands().set(
+                    key.getBytes(StandardCharsets.UTF_8),
+                    value.getBytes(StandardCharsets.UTF_8),
+                    expiration,
+                    RedisStringCommands.SetOption.upsert()));
+            return null;
+        });
+    }
+
+    /**
+     * 여러 키의 만료 시간을 한 번에 갱신하기.
+     */
+    public static void expireAll(RedisTemplate<String, String> redisTemplate, List<String> keys, Duration ttl) {
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for(String key : keys) {
+                connection.keyCommands().pExpire(key.getBytes(StandardCharsets.UTF_8), ttl.toMillis());
+            }
+            return null;
+        });
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class ValueWithTtl {
+        private final String value;
+        // 키가 없으면 -2, 만료 시간이 없으면 -1
+        private final Long ttlMillis;
+    }
+}
@@ -1,43 +1,183 @@
 package com.matdori.matdori.util;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
 import javax.annotation.PostConstruct;
 import javax.servlet.http.Cookie;
 import javax.servlet.http.HttpServletRequest;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 
 @Component
 @RequiredArgsConstructor
 public class SessionUtil {
+
+    private static final Duration SESSION_EXPIRATION = Duration.ofDays(14);
+    // 남은 시간이 이보다 짧을 때만 만료 시간을 갱신한다. 하루에 한 번 정도만 쓰기가 일어난다.
+    private static final Duration SESSION_REFRESH_THRESHOLD = SESSION_EXPIRATION.minusDays(1);
+    // 한 요청 안에서 세션을 다시 조회하지 않도록 조회 결과를 request attribute에 담아둔다.
+    private static final String SESSION_VALUE_ATTRIBUTE = SessionUtil.class.getName() + ".value";
+    private static final String NO_SESSION = "";
+
+    // 서버마다 로그인 세션을 잠깐 들고 있어서, 활동 중인 유저의 요청은 Redis를 거치지 않는다.
+    // 로그아웃하면 채널로 세션 키를 알려서 모든 서버에서 바로 지운다.
+    // 채널 메시지는 유실될 수 있으므로 서버에 들고 있는 시간은 짧게 둔다.
+    private static final String INVALIDATION_CHANNEL = "session:invalidate";
+    private static final Duration LOCAL_SESSION_EXPIRATION = Duration.ofSeconds(30);
+    private static final long LOCAL_SESSION_MAXIMUM_SIZE = 10_000;
+
+    // 구독이 살아 있는지 확인하는 메시지. 세션 키(UUID)와 겹치지 않는다.
+    // 주기마다 채널에 보내고, 마지막으로 받은 뒤 HEARTBEAT_TIMEOUT이 지나면 구독이 끊긴 것으로 보고 서버에 들고 있는 세션을 쓰지 않는다.
+    private static final String HEARTBEAT_MESSAGE = "heartbeat";
+    private static final long HEARTBEAT_INTERVAL_MILLIS = 5_000;
+    private static final long HEARTBEAT_TIMEOUT_NANOS = Duration.ofSeconds(15).toNanos();
+    private static volatile long lastHeartbeatNanos = System.nanoTime() - HEARTBEAT_TIMEOUT_NANOS;
+
     @Autowired
     private final RedisTemplate<String,String> redis;
+    private final RedisMessageListenerContainer listenerContainer;
     private static RedisTemplate<String, String> redisTemplate;
 
+    // Redis에 남은 만료 시간보다 오래 들고 있지 않도록 항목마다 만료 시간을 따로 둔다.
+    private static final Cache<String, LocalSession> localSessions = Caffeine.newBuilder()
+            .maximumSize(LOCAL_SESSION_MAXIMUM_SIZE)
+            .expireAfter(new Expiry<String, LocalSession>() {
+                @Override
+                public long expireAfterCreate(String key, LocalSession session, long currentTime) {
+                    return session.ttlNanos;
+                }
+
+                @Override
+                public long expireAfterUpdate(String key, LocalSession session, long currentTime, long currentDuration) {
+                    return session.ttlNanos;
+                }
+
+                @Override
+                public long expireAfterRead(String key, LocalSession session, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .build();
+
+    // 로그아웃된 세션 키. Redis를 조회한 뒤 서버에 넣기 전에 로그아웃 메시지가 먼저 처리된 경우를 막기 위해,
+    // 세션을 넣은 다음 여기에 있는지 다시 확인한다.
+    private static final Cache<String, Boolean> invalidatedSessions = Caffeine.newBuilder()
+            .maximumSize(LOCAL_SESSION_MAXIMUM_SIZE)
+            .expireAfterWrite(LOCAL_SESSION_EXPIRATION)
+            .build();
+
     @PostConstruct
     public void SessionUtil(){
         redisTemplate = this.redis;
+        listenerContainer.addMessageListener((message, pattern) -> {
+            String body = new String(message.getBody(), StandardCharsets.UTF_8);
+            if(HEARTBEAT_MESSAGE.equals(body))
+                onHeartbeat();
+            else
+                invalidateLocal(body);
+        }, new ChannelTopic(INVALIDATION_CHANNEL));
+    }
+
+    @Scheduled(fixedDelay = HEARTBEAT_INTERVAL_MILLIS)
+    public void publishHeartbeat() {
+        redisTemplate.convertAndSend(INVALIDATION_CHANNEL, HEARTBEAT_MESSAGE);
+    }
+
+    /**
+     * 구독이 끊겼다가 다시 연결되면, 끊긴 동안 받지 못한 로그아웃이 있을 수 있으므로 서버에 들고 있는 세션을 모두 비운다.
+     */
+    private static void onHeartbeat() {
+        if(!isSubscriptionAlive())
+            localSessions.invalidateAll();
+        lastHeartbeatNanos = System.nanoTime();
+    }
+
+    private static boolean isSubscriptionAlive() {
+        return System.nanoTime() - lastHeartbeatNanos < HEARTBEAT_TIMEOUT_NANOS;
+    }
+
+    private static void invalidateLocal(String sessionId) {
+        invalidatedSessions.put(sessionId, Boolean.TRUE);
+        localSessions.invalidate(sessionId);
     }
     public static void deleteAttribute(String key){
         redisTemplate.delete(key);
     }
-    public static String getAttribute(String sessionId){
-        String value = redisTemplate.opsForValue().get(sessionId);
-        if(value != null) {   // 인증시간을 갱신시켜줌
-            Duration expiration = Duration.ofMinutes(60 * 24 * 14);
-            redisTemplate.opsForValue().set(sessionId, value, expiration);
+    public static String getAttribute(String key){
+        return redisTemplate.opsForValue().get(key);
+    }
+
+    public static void setAttribute(String key, String value){
+        redisTemplate.opsForValue().set(key,value, SESSION_EXPIRATION);
+    }
+
+    /**
+     * 로그인 세션 값 조회하기.
+     * GET과 PTTL을 파이프라인으로 한 번에 보내고, 남은 시간이 기준보다 짧을 때만 EXPIRE로 갱신한다.
+     * 같은 요청 안에서는 Redis를 다시 조회하지 않고, 서버에 들고 있는 세션이 있으면 그것을 쓴다.
+     */
+    public static String getSession(String sessionId){
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if(attributes != null) {
+            Object cached = attributes.getAttribute(SESSION_VALUE_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+            if(cached != null)
+                return NO_SESSION.equals(cached) ? null : (String) cached;
+        }
+
+        boolean subscriptionAlive = isSubscriptionAlive();
+        LocalSession localSession = subscriptionAlive ? localSessions.getIfPresent(sessionId) : null;
+        if(localSession != null) {
+            if(attributes != null)
+                attributes.setAttribute(SESSION_VALUE_ATTRIBUTE, localSession.value, RequestAttributes.SCOPE_REQUEST);
+            return localSession.value;
+        }
+
+        RedisPipelineUtil.ValueWithTtl session = RedisPipelineUtil.getWithTtl(redisTemplate, sessionId);
+        String value = session.getValue();
+        Long ttl = session.getTtlMillis();
+
+        // 인증시간을 갱신시켜줌
+        if(value != null && ttl != null && ttl >= 0 && ttl < SESSION_REFRESH_THRESHOLD.toMillis()) {
+            redisTemplate.expire(sessionId, SESSION_EXPIRATION);
+            ttl = SESSION_EXPIRATION.toMillis();
         }
+
+        // 만료 시간이 없는 키(ttl < 0)는 서버에 들고 있지 않는다.
+        // 넣은 뒤에 로그아웃 표시를 확인해서, 조회와 넣기 사이에 처리된 로그아웃 메시지를 놓치지 않는다.
+        if(subscriptionAlive && value != null && ttl != null && ttl > 0) {
+            localSessions.put(sessionId, new LocalSession(value,
+                    Math.min(LOCAL_SESSION_EXPIRATION.toNanos(), Duration.ofMillis(ttl).toNanos())));
+            if(invalidatedSessions.getIfPresent(sessionId) != null)
+                localSessions.invalidate(sessionId);
+        }
+
+        if(attributes != null)
+            attributes.setAttribute(SESSION_VALUE_ATTRIBUTE, value == null ? NO_SESSION : value, RequestAttributes.SCOPE_REQUEST);
         return value;
     }
 
-    public static void setAttribute(String key, String value){
-        Duration expiration = Duration.ofMinutes(60 * 24 * 14);
-        redisTemplate.opsForValue().set(key,value, expiration);
+    /**
+     * 로그인 세션 삭제하기. 다른 서버가 들고 있는 세션도 지우도록 알린다.
+     */
+    public static void deleteSession(String sessionId){
+        redisTemplate.delete(sessionId);
+        invalidateLocal(sessionId);
+        redisTemplate.convertAndSend(INVALIDATION_CHANNEL, sessionId);
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if(attributes != null)
+            attributes.removeAttribute(SESSION_VALUE_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
     }
 
     public static String getSessionCookie(){
@@ -54,4 +194,14 @@ public class SessionUtil {
 
         return null;
     }
+
+    private static class LocalSession {
+        private final String value;
+        private final long ttlNanos;
+
+        private LocalSession(String value, long ttlNanos) {
+            this.value = value;
+            this.ttlNanos = ttlNanos;
+        }
+    }
 }
@@ -0,0 +1,58 @@
+package com.matdori.matdori.service;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@Transactional
+public class CatalogImportServiceTest {
+
+    @Autowired CatalogImportService catalogImportService;
+    @Autowired EntityManager em;
+
+    private static final String CATALOG = "[" +
+            "{\"name\": \"일괄 등록 가게\", \"category\": \"한식\", \"address\": \"인천 미추홀구\", " +
+            "\"openHours\": {\"monday\": \"11:00 - 21:00\"}, " +
+            "\"categories\": [" +
+            "{\"name\": \"메인\", \"menus\": [{\"name\": \"김치찌개\", \"price\": \"8000\"}, {\"name\": \"된장찌개\", \"price\": \"8000\"}]}, " +
+            "{\"name\": \"음료\", \"menus\": []}]}" +
+            "]";
+
+    @Test
+    public void 같은_파일을_다시_등록해도_결과가_같다() throws Exception {
+
+        // when
+        int first = catalogImportService.importCatalog(json(CATALOG));
+        int second = catalogImportService.importCatalog(json(CATALOG));
+
+
+        // then
+        assertEquals(1, first);
+        assertEquals(1, second);
+        assertEquals(1L, count("SELECT COUNT(s) FROM Store s WHERE s.name = '일괄 등록 가게'"));
+        assertEquals(2L, count("SELECT COUNT(c) FROM Category c WHERE c.store.name = '일괄 등록 가게'"));
+        assertEquals(2L, count("SELECT COUNT(m) FROM Menu m WHERE m.category.store.name = '일괄 등록 가게'"));
+        assertEquals(1L, count("SELECT COUNT(r) FROM StoreRatingSummary r, Store s " +
+                "WHERE r.storeId = s.id AND s.name = '일괄 등록 가게'"));
+    }
+
+    private InputStream json(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private long count(String jpql) {
+        return em.createQuery(jpql, Long.class).getSingleResult();
+    }
+}
@@ -0,0 +1,269 @@
+package com.matdori.matdori.service;
+
+import com.matdori.matdori.domain.*;
+import com.matdori.matdori.exception.InsufficientPrivilegesException;
+import com.matdori.matdori.repositoy.*;
+import com.matdori.matdori.repositoy.Dto.JokboCommentItem;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@Transactional
+public class JokboServiceTest {
+
+    @Autowired JokboService jokboService;
+    @Autowired UserService userService;
+
+    @Autowired
+    EntityManager em;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    StoreRepository storeRepository;
+    @Autowired
+    JokboRepository jokboRepository;
+    @Autowired
+    JokboCommentRepository jokboCommentRepository;
+
+
+    @Test
+    public void 댓글_목록_조회_쿼리_개수() {
+
+        // given
+
+        // 유저 정보 저장
+        User user = new User();
+        user.setEmail("matdori@gmail.com");
+        user.setPassword("1234");
+        user.setNickname("testNickname");
+        user.setDepartment(Department.COMPUTER_ENGINEERING);
+
+        User user2 = new User();
+        user2.setEmail("matdori2@gmail.com");
+        user2.setPassword("1234");
+        user2.setNickname("testNickname2");
+        user2.setDepartment(Department.INFORMATION_AND_COMMUNICATION_ENGINEERING);
+
+        userRepository.save(user);
+        userRepository.save(user2);
+
+
+        // 가게 정보 저장
+        Store store = new Store();
+        store.setName("가게 이름");
+        store.setCategory(StoreCategory.CHICKEN);
+        storeRepository.save(store);
+
+
+        // 족보 정보 저장
+        Jokbo jokbo = new Jokbo();
+        jokbo.setUser(user);
+        jokbo.setStore(store);
+        jokbo.setTitle("족보 제목");
+        jokbo.setContents("족보 내용");
+        jokbo.setFlavorRating(3);
+        jokbo.setUnderPricedRating(3);
+        jokbo.setCleanRating(3);
+        jokboRepository.save(jokbo);
+
+
+        // 한 페이지를 채우는 족보 댓글 14개 저장, 짝수 번째 댓글에는 user2가 좋아요
+        for(int i = 0; i < 14; i++) {
+            JokboComment jokboComment = new JokboComment();
+            jokboComment.setJokbo(jokbo);
+            jokboComment.setUser(i % 2 == 0 ? user : user2);
+            jokboComment.setContents("댓글 내용" + i);
+            jokboComment.setIsDeleted(false);
+            jokboCommentRepository.save(jokboComment);
+
+            if(i % 2 == 0)
+                userService.createFavoriteComment(jokboComment.getId(), user2.getId());
+        }
+
+        em.flush();
+        em.clear();
+
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+
+        // when
+        List<JokboCommentItem> comments = jokboService.getAllJokboComments(jokbo.getId(), null, user2.getId());
+
+
+        // then
+        assertEquals(14, comments.size());
+        assertEquals(2, statistics.getPrepareStatementCount());
+        for(JokboCommentItem comment : comments) {
+            boolean favorite = comment.getNickname().equals("testNickname");
+            assertEquals(favorite, comment.getCommentFavoriteId() != null);
+            assertEquals(favorite ? 1 : 0, comment.getFavoriteCnt().intValue());
+        }
+    }
+
+    @Test
+    public void 족보_여러개_삭제() {
+
+        // given
+        User user = new User();
+        user.setEmail("matdori@gmail.com");
+        user.setPassword("1234");
+        user.setNickname("testNickname");
+        user.setDepartment(Department.COMPUTER_ENGINEERING);
+        userRepository.save(user);
+
+        Store store = new Store();
+        store.setName("가게 이름");
+        store.setCategory(StoreCategory.CHICKEN);
+        storeRepository.save(store);
+
+        // 족보 3개 작성, 앞의 2개를 삭제
+        List<Long> jokboIds = new ArrayList<>();
+        for(int i = 0; i < 3; i++) {
+            Jokbo jokbo = new Jokbo();
+            jokbo.setUser(user);
+            jokbo.setStore(store);
+            jokbo.setTitle("족보 제목" + i);
+            jokbo.setContents("족보 내용" + i);
+            jokbo.setFlavorRating(i + 1);
+            jokbo.setUnderPricedRating(i + 1);
+            jokbo.setCleanRating(i + 1);
+            jokboService.createJokbo(jokbo, null);
+            jokboIds.add(jokbo.getId());
+
+            JokboComment jokboComment = new JokboComment();
+            jokboComment.setJokbo(jokbo);
+            jokboComment.setUser(user);
+            jokboComment.setContents("댓글 내용" + i);
+            jokboComment.setIsDeleted(false);
+            jokboCommentRepository.save(jokboComment);
+            userService.createFavoriteComment(jokboComment.getId(), user.getId());
+        }
+
+        em.flush();
+        em.clear();
+
+
+        // when
+        jokboService.deleteJokbos(user.getId(), jokboIds.subList(0, 2));
+        em.flush();
+        em.clear();
+
+
+        // then
+        assertFalse(jokboRepository.findOne(jokboIds.get(0)).isPresent());
+        assertFalse(jokboRepository.findOne(jokboIds.get(1)).isPresent());
+        assertTrue(jokboRepository.findOne(jokboIds.get(2)).isPresent());
+
+        StoreRatingSummary summary = em.find(StoreRatingSummary.class, store.getId());
+        assertEquals(1, summary.getJokboCount());
+        assertEquals(3, summary.getFlavorRatingSum());
+        assertEquals(StoreRatingSummary.bayesianScore(3, 1), summary.getFlavorScore(), 1e-9);
+    }
+
+    @Test
+    public void 댓글_여러개_삭제_쿼리_개수() {
+
+        // given
+        User user = new User();
+        user.setEmail("matdori@gmail.com");
+        user.setPassword("1234");
+        user.setNickname("testNickname");
+        userRepository.save(user);
+
+        Store store = new Store();
+        store.setName("가게 이름");
+        store.setCategory(StoreCategory.CHICKEN);
+        storeRepository.save(store);
+
+        Jokbo jokbo = new Jokbo();
+        jokbo.setUser(user);
+        jokbo.setStore(store);
+        jokbo.setTitle("족보 제목");
+        jokbo.setContents("족보 내용");
+        jokbo.setFlavorRating(3);
+        jokbo.setUnderPricedRating(3);
+        jokbo.setCleanRating(3);
+        jokboRepository.save(jokbo);
+
+        List<Long> commentIds = new ArrayList<>();
+        for(int i = 0; i < 3; i++) {
+            JokboComment jokboComment = new JokboComment();
+            jokboComment.setJokbo(jokbo);
+            jokboComment.setUser(user);
+            jokboComment.setContents("댓글 내용" + i);
+            jokboComment.setIsDeleted(false);
+            jokboService.createJokboComment(jokboComment);
+            commentIds.add(jokboComment.getId());
+        }
+
+        em.flush();
+        em.clear();
+
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+
+        // when
+        jokboService.deleteJokboComments(user.getId(), commentIds.subList(0, 2));
+
+
+        // then
+        assertEquals(1, statistics.getPrepareStatementCount());
+        em.clear();
+        assertEquals(1, jokboRepository.findOne(jokbo.getId()).get().getCommentCount());
+        assertTrue(jokboCommentRepository.findOne(commentIds.get(0)).get().getIsDeleted());
+        assertFalse(jokboCommentRepository.findOne(commentIds.get(2)).get().getIsDeleted());
+    }
+
+    @Test(expected = InsufficientPrivilegesException.class)
+    public void 다른_사람의_족보는_삭제할_수_없다() {
+
+        // given
+        User user = new User();
+        user.setEmail("matdori@gmail.com");
+        user.setPassword("1234");
+        user.setNickname("testNickname");
+        userRepository.save(user);
+
+        User user2 = new User();
+        user2.setEmail("matdori2@gmail.com");
+        user2.setPassword("1234");
+        user2.setNickname("testNickname2");
+        userRepository.save(user2);
+
+        Store store = new Store();
+        store.setName("가게 이름");
+        store.setCategory(StoreCategory.CHICKEN);
+        storeRepository.save(store);
+
+        Jokbo jokbo = new Jokbo();
+        jokbo.setUser(user);
+        jokbo.setStore(store);
+        jokbo.setTitle("족보 제목");
+        jokbo.setContents("족보 내용");
+        jokbo.setFlavorRating(3);
+        jokbo.setUnderPricedRating(3);
+        jokbo.setCleanRating(3);
+        jokboService.createJokbo(jokbo, null);
+
+
+        // when
+        jokboService.deleteJokbos(user2.getId(), List.of(jokbo.getId()));
+    }
+}
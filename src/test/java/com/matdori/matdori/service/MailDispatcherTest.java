@@ -0,0 +1,56 @@
+package com.matdori.matdori.service;
+
+import com.icegreen.greenmail.junit4.GreenMailRule;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.matdori.matdori.domain.MailOutbox;
+import com.matdori.matdori.repositoy.MailOutboxRepository;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.mail.internet.MimeMessage;
+import javax.persistence.EntityManager;
+
+import static org.junit.Assert.*;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = {
+        "spring.mail.host=localhost",
+        "spring.mail.port=3025",
+        "spring.mail.properties.mail.smtp.auth=false",
+        "spring.mail.properties.mail.smtp.starttls.enable=false"
+})
+@Transactional
+public class MailDispatcherTest {
+
+    // 테스트 동안 3025 포트에 뜨는 SMTP 서버
+    @Rule
+    public final GreenMailRule greenMail = new GreenMailRule(ServerSetupTest.SMTP);
+
+    @Autowired MailDispatcher mailDispatcher;
+    @Autowired MailOutboxRepository mailOutboxRepository;
+    @Autowired EntityManager em;
+
+    @Test
+    public void 대기열_메일_전송() throws Exception {
+
+        // given
+        for(int i = 0; i < 3; i++) {
+            mailOutboxRepository.save(new MailOutbox("matdori" + i + "@inha.edu", "맛도리 인증메일입니다.", "인증번호" + i));
+        }
+        em.flush();
+
+        // when
+        mailDispatcher.dispatch();
+
+        // then
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertEquals(3, received.length);
+        assertEquals("맛도리 인증메일입니다.", received[0].getSubject());
+        assertEquals(0, mailOutboxRepository.countPending());
+    }
+}